@@ -0,0 +1,171 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.CacheInvalidation;
+import ru.practicum.shareit.cache.CacheInvalidationBroadcaster;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Кэш занятости вещей, позволяющий отклонить пересекающееся бронирование без запроса к БД.
+ * Свободный по индексу период проверяется в БД: пропущенное индексом бронирование
+ * считается и сбрасывает календарь вещи. Календарь загружается при первом обращении,
+ * обновляется после фиксации локальных транзакций бронирования, а изменения с других узлов
+ * приходят через CacheInvalidationBroadcaster и сбрасывают его. Если сообщение потеряется,
+ * ложный отказ ограничен ttl календаря. Закончившиеся интервалы отбрасываются при каждом изменении.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.availability-index.enabled", havingValue = "true")
+public class ItemAvailabilityIndex {
+    private static final int STRIPES = 64;
+    private static final String ROLE = ItemCalendar.class.getName();
+
+    private final BookingRepository bookingRepository;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final Cache<Long, ItemCalendar> calendars;
+    private final ReadWriteLock[] locks = new ReadWriteLock[STRIPES];
+    private final Counter rejected;
+    private final Counter passed;
+    private final Counter falsePassed;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 CacheInvalidationBroadcaster broadcaster,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.booking.availability-index.max-items:100000}") long maxItems,
+                                 @Value("${shareit.booking.availability-index.ttl:5m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.broadcaster = broadcaster;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .build();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        this.rejected = meterRegistry.counter("shareit.booking.availability.checks", "result", "rejected");
+        this.passed = meterRegistry.counter("shareit.booking.availability.checks", "result", "passed");
+        this.falsePassed = meterRegistry.counter("shareit.booking.availability.checks", "result", "false_pass");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        broadcaster.subscribe(invalidation -> {
+            if (invalidation.type() == CacheInvalidation.Type.AVAILABILITY) {
+                invalidate((Long) invalidation.key());
+            }
+        });
+    }
+
+    public boolean isBusy(Long itemId, LocalDateTime start, LocalDateTime end) {
+        long startSecond = toEpochSecond(start);
+        long endSecond = toEpochSecond(end);
+        ReadWriteLock lock = lockFor(itemId);
+
+        lock.readLock().lock();
+        try {
+            ItemCalendar calendar = calendars.getIfPresent(itemId);
+            if (calendar != null) {
+                return record(calendar.overlaps(startSecond, endSecond));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            ItemCalendar calendar = calendars.getIfPresent(itemId);
+            if (calendar == null) {
+                calendar = load(itemId);
+                calendars.put(itemId, calendar);
+            }
+            return record(calendar.overlaps(startSecond, endSecond));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Индекс счёл период свободным, а БД нашла пересечение: календарь вещи устарел
+     * и будет загружен заново.
+     */
+    public void recordFalsePass(Long itemId) {
+        falsePassed.increment();
+        invalidate(itemId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        ReadWriteLock lock = lockFor(event.getItemId());
+        lock.writeLock().lock();
+        try {
+            ItemCalendar calendar = calendars.getIfPresent(event.getItemId());
+            if (calendar == null) {
+                return;
+            }
+            long startSecond = toEpochSecond(event.getStart());
+            long endSecond = toEpochSecond(event.getEnd());
+            calendar.pruneEndedBy(toEpochSecond(LocalDateTime.now()));
+            switch (event.getStatus()) {
+                case WAITING:
+                case APPROVED:
+                    calendar.add(startSecond, endSecond);
+                    break;
+                default:
+                    calendar.remove(startSecond, endSecond);
+            }
+        } finally {
+            lock.writeLock().unlock();
+            broadcaster.publish(new CacheInvalidation(CacheInvalidation.Type.AVAILABILITY, ROLE, event.getItemId()));
+        }
+    }
+
+    private void invalidate(Long itemId) {
+        ReadWriteLock lock = lockFor(itemId);
+        lock.writeLock().lock();
+        try {
+            calendars.invalidate(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ItemCalendar load(Long itemId) {
+        ItemCalendar calendar = new ItemCalendar();
+        for (BookingPeriod period : bookingRepository.findActivePeriods(itemId, LocalDateTime.now())) {
+            calendar.add(toEpochSecond(period.getStartDate()), toEpochSecond(period.getEndDate()));
+        }
+        return calendar;
+    }
+
+    private boolean record(boolean busy) {
+        (busy ? rejected : passed).increment();
+        return busy;
+    }
+
+    private ReadWriteLock lockFor(Long itemId) {
+        return locks[Long.hashCode(itemId * 0x9E3779B97F4A7C15L) & (STRIPES - 1)];
+    }
+
+    /**
+     * Отбрасывание долей секунды может дать только ложный пропуск, но не ложный отказ.
+     */
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
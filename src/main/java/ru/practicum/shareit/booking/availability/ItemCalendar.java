@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.util.Arrays;
+
+/**
+ * Занятые интервалы одной вещи [start, end) в секундах эпохи, отсортированные по началу.
+ * Активные бронирования вещи не пересекаются, поэтому концы тоже упорядочены.
+ * Класс не потокобезопасен, доступ синхронизирует ItemAvailabilityIndex.
+ */
+class ItemCalendar {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private int size;
+
+    boolean overlaps(long start, long end) {
+        int position = lowerBound(end);
+        return position > 0 && ends[position - 1] > start;
+    }
+
+    void add(long start, long end) {
+        int position = lowerBound(start);
+        for (int i = position; i < size && starts[i] == start; i++) {
+            if (ends[i] == end) {
+                return;
+            }
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        System.arraycopy(starts, position, starts, position + 1, size - position);
+        System.arraycopy(ends, position, ends, position + 1, size - position);
+        starts[position] = start;
+        ends[position] = end;
+        size++;
+    }
+
+    void remove(long start, long end) {
+        for (int i = lowerBound(start); i < size && starts[i] == start; i++) {
+            if (ends[i] == end) {
+                System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+                System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Удаляет интервалы, закончившиеся не позже now: они уже не могут пересечься
+     * с новым бронированием, даты которого не бывают в прошлом.
+     */
+    void pruneEndedBy(long now) {
+        int ended = 0;
+        while (ended < size && ends[ended] <= now) {
+            ended++;
+        }
+        if (ended > 0) {
+            System.arraycopy(starts, ended, starts, 0, size - ended);
+            System.arraycopy(ends, ended, ends, 0, size - ended);
+            size -= ended;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Индекс первого интервала, начало которого не меньше value.
+     */
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
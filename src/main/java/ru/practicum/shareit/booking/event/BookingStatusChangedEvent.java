@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Публикуется при создании бронирования и при смене его статуса.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingStatusChangedEvent {
+    private final Long bookingId;
+    private final Long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+
+    public static BookingStatusChangedEvent of(Booking booking) {
+        return new BookingStatusChangedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сводка по подтверждённым бронированиям вещи. refreshAt - ближайший момент,
+ * когда lastEnd или nextStart устареют (начало следующего или конец текущего бронирования).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    @Column(name = "approved_count", nullable = false)
+    private Long approvedCount;
+}
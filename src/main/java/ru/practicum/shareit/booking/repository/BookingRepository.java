@@ -1,28 +1,178 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(
             Long bookerId, Long itemId, BookingStatus status, LocalDateTime end);
 
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.booker.id = :bookerId
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerId(@Param("bookerId") Long bookerId,
+                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.booker.id = :bookerId
+            AND b.start < :now AND b.end > :now
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findCurrentByBookerId(@Param("bookerId") Long bookerId,
+                                        @Param("now") LocalDateTime now,
+                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.booker.id = :bookerId
+            AND b.end < :now
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findPastByBookerId(@Param("bookerId") Long bookerId,
+                                     @Param("now") LocalDateTime now,
+                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.booker.id = :bookerId
+            AND b.start > :now
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findFutureByBookerId(@Param("bookerId") Long bookerId,
+                                       @Param("now") LocalDateTime now,
+                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.booker.id = :bookerId
+            AND b.status = :status
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdAndStatus(@Param("bookerId") Long bookerId,
+                                          @Param("status") BookingStatus status,
+                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    /**
+     * Списки владельца идут по owner_id, скопированному в bookings, и индексу
+     * (owner_id, start_date DESC, id DESC), без соединения с items. Условие b.start <= :cursorStart
+     * задаёт границу диапазона индекса, а сравнение с id лишь отсекает строки на этой границе.
+     */
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.ownerId = :ownerId
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItemOwnerId(@Param("ownerId") Long ownerId,
+                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.ownerId = :ownerId
+            AND b.start < :now AND b.end > :now
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findCurrentByItemOwnerId(@Param("ownerId") Long ownerId,
+                                           @Param("now") LocalDateTime now,
+                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
 
     @Query("""
             SELECT b FROM Booking b
-            WHERE b.item.owner = :ownerId
-            ORDER BY b.start DESC
+            WHERE b.ownerId = :ownerId
+            AND b.end < :now
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    List<Booking> findByItemOwnerIdOrderByStartDesc(@Param("ownerId") Long ownerId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findPastByItemOwnerId(@Param("ownerId") Long ownerId,
+                                        @Param("now") LocalDateTime now,
+                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.ownerId = :ownerId
+            AND b.start > :now
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findFutureByItemOwnerId(@Param("ownerId") Long ownerId,
+                                          @Param("now") LocalDateTime now,
+                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.ownerId = :ownerId
+            AND b.status = :status
+            AND b.start <= :cursorStart
+            AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId,
+                                             @Param("status") BookingStatus status,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
 
     @Query("""
             SELECT COUNT(b) > 0 FROM Booking b
@@ -54,20 +204,51 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findNextBookings(@Param("itemId") Long itemId, Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
+            SELECT b.item.id AS itemId, b.start AS startDate, b.end AS endDate FROM Booking b
+            WHERE b.item.id = :itemId
+            AND b.status IN ('APPROVED', 'WAITING')
+            AND b.end > :after
+            ORDER BY b.start
+            """)
+    List<BookingPeriod> findActivePeriods(@Param("itemId") Long itemId, @Param("after") LocalDateTime after);
+
+    @Query("""
+            SELECT b.item.id AS itemId, b.start AS startDate, b.end AS endDate FROM Booking b
             WHERE b.item.id IN :itemIds
-            AND b.status = 'APPROVED'
-            AND b.end < CURRENT_TIMESTAMP
-            ORDER BY b.end DESC
+            AND b.status IN ('APPROVED', 'WAITING')
+            AND b.start < :to AND b.end > :from
+            ORDER BY b.item.id, b.start
             """)
-    List<Booking> findLastBookingsForItems(@Param("itemIds") List<Long> itemIds);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookingPeriod> streamActivePeriods(@Param("itemIds") Collection<Long> itemIds,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
 
     @Query("""
             SELECT b FROM Booking b
+            JOIN FETCH b.item i
+            JOIN FETCH b.booker
+            WHERE b.ownerId = :ownerId
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Booking> streamByItemOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.model.ItemBookingSummary(
+                b.item.id,
+                MAX(CASE WHEN b.end < :now THEN b.end END),
+                MIN(CASE WHEN b.start > :now THEN b.start END),
+                MIN(CASE WHEN b.start > :now THEN b.start WHEN b.end > :now THEN b.end END),
+                COUNT(b))
+            FROM Booking b
             WHERE b.item.id IN :itemIds
             AND b.status = 'APPROVED'
-            AND b.start > CURRENT_TIMESTAMP
-            ORDER BY b.start ASC
+            GROUP BY b.item.id
             """)
-    List<Booking> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds);
-}
\ No newline at end of file
+    List<ItemBookingSummary> summarizeApproved(@Param("itemIds") Collection<Long> itemIds,
+                                               @Param("now") LocalDateTime now);
+}
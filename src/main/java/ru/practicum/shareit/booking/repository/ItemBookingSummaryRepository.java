@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    /**
+     * Забирает вещи с устаревшими сводками, блокируя их строки в items до конца транзакции:
+     * ту же блокировку берёт ItemBookingSummaryService.refresh, так что порядок блокировок
+     * у обхода и пересчёта после подтверждения одинаков. Строки, уже заблокированные
+     * другим узлом, пропускаются (SKIP LOCKED), поэтому узлы пересчитывают разные вещи и не ждут друг друга.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT i FROM Item i
+            WHERE i.id IN (SELECT s.itemId FROM ItemBookingSummary s WHERE s.refreshAt <= :now)
+            ORDER BY i.id
+            """)
+    List<Item> claimItemsToRefresh(@Param("now") LocalDateTime now, Pageable pageable);
+}
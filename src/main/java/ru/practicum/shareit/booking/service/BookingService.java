@@ -3,6 +3,8 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface BookingService {
@@ -12,7 +14,9 @@ public interface BookingService {
 
     BookingResponseDto getById(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getUserBookings(Long userId, String state);
+    List<BookingResponseDto> getUserBookings(Long userId, String state, Integer from, Integer size, String cursor);
 
-    List<BookingResponseDto> getOwnerBookings(Long ownerId, String state);
+    List<BookingResponseDto> getOwnerBookings(Long ownerId, String state, Integer from, Integer size, String cursor);
+
+    void exportOwnerBookings(Long ownerId, OutputStream out) throws IOException;
 }
\ No newline at end of file
@@ -1,15 +1,28 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.Constraints;
+import ru.practicum.shareit.common.NdjsonWriter;
+import ru.practicum.shareit.common.Pages;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -17,18 +30,32 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+    private static final String OVERLAP_CONSTRAINT = "excl_bookings_item_period";
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistence;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<ItemAvailabilityIndex> availabilityIndex;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -36,7 +63,9 @@ public class BookingServiceImpl implements BookingService {
         User booker = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
 
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        // Блокировка строки вещи до конца транзакции: параллельные бронирования той же вещи
+        // выполняют проверку пересечений по очереди, другие вещи не блокируются.
+        Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + bookingDto.getItemId() + " не найдена"));
 
         if (!item.getAvailable()) {
@@ -49,16 +78,32 @@ public class BookingServiceImpl implements BookingService {
 
         validateBookingDates(bookingDto.getStart(), bookingDto.getEnd());
 
-        boolean hasOverlapping = bookingRepository.existsOverlappingBookings(
-                item.getId(), bookingDto.getStart(), bookingDto.getEnd());
-        if (hasOverlapping) {
+        // Занятый по индексу период отклоняется без запроса к БД; свободный проверяется в БД,
+        // так как индекс мог не увидеть бронирование, сделанное на другом узле
+        ItemAvailabilityIndex index = availabilityIndex.getIfAvailable();
+        if (index != null && index.isBusy(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new ValidationException("Вещь уже забронирована на указанные даты");
+        }
+        if (bookingRepository.existsOverlappingBookings(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            if (index != null) {
+                index.recordFalsePass(item.getId());
+            }
             throw new ValidationException("Вещь уже забронирована на указанные даты");
         }
 
         Booking booking = BookingMapper.toBooking(bookingDto, item, booker);
         booking.setStatus(BookingStatus.WAITING);
 
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!Constraints.violates(e, OVERLAP_CONSTRAINT)) {
+                throw e;
+            }
+            throw new ValidationException("Вещь уже забронирована на указанные даты");
+        }
+        eventPublisher.publishEvent(BookingStatusChangedEvent.of(savedBooking));
         return BookingMapper.toBookingResponseDto(savedBooking);
     }
 
@@ -68,7 +113,8 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id=" + bookingId + " не найдено"));
 
-        if (!userRepository.existsById(userId) || !booking.getItem().getOwner().equals(userId)) {
+        // Владелец вещи существует по внешнему ключу, отдельная проверка пользователя не нужна
+        if (!booking.getItem().getOwner().equals(userId)) {
             throw new ForbiddenException("Только владелец вещи может подтверждать бронирование");
         }
 
@@ -79,19 +125,17 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
 
         Booking updatedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingStatusChangedEvent.of(updatedBooking));
         return BookingMapper.toBookingResponseDto(updatedBooking);
     }
 
     @Override
     public BookingResponseDto getById(Long userId, Long bookingId) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
-        }
-
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id=" + bookingId + " не найдено"));
 
         if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().equals(userId)) {
+            userExistence.requireExists(userId);
             throw new NotFoundException("Нет доступа к просмотру этого бронирования");
         }
 
@@ -99,44 +143,40 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponseDto> getUserBookings(Long userId, String stateParam) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
-        }
+    public List<BookingResponseDto> getUserBookings(Long userId, String stateParam, Integer from, Integer size, String cursorParam) {
+        userExistence.requireExists(userId);
 
         BookingState state = parseState(stateParam);
+        BookingCursor cursor = parseCursor(cursorParam, from);
+        Pageable pageable = Pages.of(from == null ? 0 : from, size);
 
         LocalDateTime now = LocalDateTime.now();
         List<Booking> bookings;
 
         switch (state) {
             case CURRENT:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId).stream()
-                        .filter(b -> b.getStart().isBefore(now) && b.getEnd().isAfter(now))
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findCurrentByBookerId(
+                        userId, now, cursor.getStart(), cursor.getId(), pageable);
                 break;
             case PAST:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId).stream()
-                        .filter(b -> b.getEnd().isBefore(now))
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findPastByBookerId(
+                        userId, now, cursor.getStart(), cursor.getId(), pageable);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId).stream()
-                        .filter(b -> b.getStart().isAfter(now))
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findFutureByBookerId(
+                        userId, now, cursor.getStart(), cursor.getId(), pageable);
                 break;
             case WAITING:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId).stream()
-                        .filter(b -> b.getStatus() == BookingStatus.WAITING)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findByBookerIdAndStatus(
+                        userId, BookingStatus.WAITING, cursor.getStart(), cursor.getId(), pageable);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId).stream()
-                        .filter(b -> b.getStatus() == BookingStatus.REJECTED)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findByBookerIdAndStatus(
+                        userId, BookingStatus.REJECTED, cursor.getStart(), cursor.getId(), pageable);
                 break;
             default:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId);
+                bookings = bookingRepository.findByBookerId(
+                        userId, cursor.getStart(), cursor.getId(), pageable);
         }
 
         return bookings.stream()
@@ -145,44 +185,40 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponseDto> getOwnerBookings(Long ownerId, String stateParam) {
-        if (!userRepository.existsById(ownerId)) {
-            throw new NotFoundException("Пользователь с id=" + ownerId + " не найден");
-        }
+    public List<BookingResponseDto> getOwnerBookings(Long ownerId, String stateParam, Integer from, Integer size, String cursorParam) {
+        userExistence.requireExists(ownerId);
 
         BookingState state = parseState(stateParam);
+        BookingCursor cursor = parseCursor(cursorParam, from);
+        Pageable pageable = Pages.of(from == null ? 0 : from, size);
 
         LocalDateTime now = LocalDateTime.now();
         List<Booking> bookings;
 
         switch (state) {
             case CURRENT:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId).stream()
-                        .filter(b -> b.getStart().isBefore(now) && b.getEnd().isAfter(now))
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findCurrentByItemOwnerId(
+                        ownerId, now, cursor.getStart(), cursor.getId(), pageable);
                 break;
             case PAST:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId).stream()
-                        .filter(b -> b.getEnd().isBefore(now))
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findPastByItemOwnerId(
+                        ownerId, now, cursor.getStart(), cursor.getId(), pageable);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId).stream()
-                        .filter(b -> b.getStart().isAfter(now))
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findFutureByItemOwnerId(
+                        ownerId, now, cursor.getStart(), cursor.getId(), pageable);
                 break;
             case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId).stream()
-                        .filter(b -> b.getStatus() == BookingStatus.WAITING)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findByItemOwnerIdAndStatus(
+                        ownerId, BookingStatus.WAITING, cursor.getStart(), cursor.getId(), pageable);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId).stream()
-                        .filter(b -> b.getStatus() == BookingStatus.REJECTED)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findByItemOwnerIdAndStatus(
+                        ownerId, BookingStatus.REJECTED, cursor.getStart(), cursor.getId(), pageable);
                 break;
             default:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId);
+                bookings = bookingRepository.findByItemOwnerId(
+                        ownerId, cursor.getStart(), cursor.getId(), pageable);
         }
 
         return bookings.stream()
@@ -190,6 +226,38 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public void exportOwnerBookings(Long ownerId, OutputStream out) throws IOException {
+        userExistence.requireExists(ownerId);
+
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+        try (Stream<Booking> bookings = bookingRepository.streamByItemOwnerId(ownerId)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.write(BookingMapper.toBookingResponseDto(iterator.next()));
+                if (++written % EXPORT_CLEAR_INTERVAL == 0) {
+                    // Прочитанные бронирования, вещи и комментарии больше не нужны контексту
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Курсор и смещение задают начало страницы по-разному, поэтому вместе не принимаются.
+     */
+    private BookingCursor parseCursor(String cursor, Integer from) {
+        if (cursor == null) {
+            return BookingCursor.FIRST;
+        }
+        if (from != null) {
+            throw new ValidationException("Параметры from и cursor нельзя передавать одновременно");
+        }
+        return BookingCursor.decode(cursor);
+    }
+
     private BookingState parseState(String state) {
         try {
             return state == null ? BookingState.ALL : BookingState.valueOf(state.toUpperCase());
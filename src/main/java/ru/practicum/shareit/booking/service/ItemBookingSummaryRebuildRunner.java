@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Заполнение item_booking_summary по существующим данным:
+ * запуск с --shareit.booking-summary.rebuild-on-startup=true.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking-summary.rebuild-on-startup", havingValue = "true")
+public class ItemBookingSummaryRebuildRunner implements ApplicationRunner {
+    private final ItemBookingSummaryService summaryService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        summaryService.rebuild();
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает таблицу item_booking_summary: пересчитывает сводку вещи после подтверждения
+ * бронирования, а по расписанию - у вещей, для которых наступил refreshAt.
+ * Пересчёт вещи идёт под блокировкой её строки в items: иначе два одновременных подтверждения
+ * могли бы посчитать сводку, не видя бронирования друг друга, и последним записать устаревшую,
+ * а первая вставка строки сводки - упасть на первичном ключе. Обход по расписанию запускается
+ * на каждом узле и забирает вещи с SKIP LOCKED, так что одну вещь пересчитывает только один узел.
+ * Обход и полный пересчёт фиксируют каждую пачку отдельно.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ItemBookingSummaryService {
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepository bookingRepository,
+                                     ItemRepository itemRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        List<Long> staleItemIds = summaries.values().stream()
+                .filter(summary -> summary.getRefreshAt() != null && !summary.getRefreshAt().isAfter(now))
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        if (!staleItemIds.isEmpty()) {
+            bookingRepository.summarizeApproved(staleItemIds, now)
+                    .forEach(summary -> summaries.put(summary.getItemId(), summary));
+        }
+
+        return summaries;
+    }
+
+    @Transactional
+    public void refresh(Collection<Long> itemIds) {
+        // Блокировки берутся в порядке id, поэтому пересекающиеся пачки не взаимоблокируются
+        itemRepository.findAllByIdForUpdate(itemIds);
+        List<ItemBookingSummary> summaries = bookingRepository.summarizeApproved(itemIds, LocalDateTime.now());
+        Set<Long> summarizedItemIds = summaries.stream()
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toSet());
+
+        summaryRepository.saveAll(summaries);
+        summaryRepository.deleteAllById(itemIds.stream()
+                .filter(itemId -> !summarizedItemIds.contains(itemId))
+                .collect(Collectors.toList()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.getStatus() == BookingStatus.APPROVED) {
+            refresh(List.of(event.getItemId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.sweep-interval}",
+            initialDelayString = "${shareit.booking-summary.sweep-interval}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sweep() {
+        Integer claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> {
+                List<Long> itemIds = summaryRepository.claimItemsToRefresh(LocalDateTime.now(),
+                                PageRequest.of(0, BATCH_SIZE)).stream()
+                        .map(Item::getId)
+                        .collect(Collectors.toList());
+                if (!itemIds.isEmpty()) {
+                    refresh(itemIds);
+                }
+                return itemIds.size();
+            });
+        } while (claimed != null && claimed == BATCH_SIZE);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuild() {
+        long itemCount = 0;
+        Long afterId = 0L;
+        List<Long> itemIds;
+        do {
+            itemIds = itemRepository.findIdsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (!itemIds.isEmpty()) {
+                List<Long> batch = itemIds;
+                transactionTemplate.executeWithoutResult(status -> refresh(batch));
+                afterId = itemIds.get(itemIds.size() - 1);
+                itemCount += itemIds.size();
+            }
+        } while (itemIds.size() == BATCH_SIZE);
+        log.info("Сводка бронирований пересчитана для {} вещей", itemCount);
+        return itemCount;
+    }
+}
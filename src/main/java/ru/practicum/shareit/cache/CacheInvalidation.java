@@ -0,0 +1,21 @@
+package ru.practicum.shareit.cache;
+
+import java.io.Serializable;
+
+/**
+ * Сообщение об изменении закэшированных данных, рассылаемое другим узлам.
+ *
+ * @param role имя сущности или роль коллекции Hibernate
+ * @param key  идентификатор сущности или владельца коллекции; null - все записи роли
+ */
+public record CacheInvalidation(Type type, String role, Serializable key) implements Serializable {
+
+    public enum Type {
+        ENTITY,
+        COLLECTION,
+        /**
+         * Календарь занятости вещи в ItemAvailabilityIndex, key - id вещи.
+         */
+        AVAILABILITY
+    }
+}
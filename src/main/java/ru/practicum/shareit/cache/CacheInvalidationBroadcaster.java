@@ -0,0 +1,16 @@
+package ru.practicum.shareit.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Транспорт сообщений об инвалидации между узлами приложения: подписчик получает
+ * только сообщения других узлов. Реализация по умолчанию, LocalCacheInvalidationBroadcaster,
+ * работает в пределах одной JVM; для нескольких узлов за балансировщиком нужна реализация
+ * поверх общей шины (например, LISTEN/NOTIFY PostgreSQL), объявленная отдельным бином.
+ */
+public interface CacheInvalidationBroadcaster {
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
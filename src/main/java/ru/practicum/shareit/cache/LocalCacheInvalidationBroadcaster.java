@@ -0,0 +1,40 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Шина в пределах JVM. Подписчики общие для всех контекстов приложения, поэтому
+ * несколько контекстов в одном процессе (например, в тестах) ведут себя как разные узлы.
+ */
+public class LocalCacheInvalidationBroadcaster implements CacheInvalidationBroadcaster, DisposableBean {
+    private static final List<Subscriber> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+
+    private final String node = UUID.randomUUID().toString();
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (Subscriber subscriber : SUBSCRIBERS) {
+            if (!subscriber.node().equals(node)) {
+                subscriber.listener().accept(invalidation);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        SUBSCRIBERS.add(new Subscriber(node, listener));
+    }
+
+    @Override
+    public void destroy() {
+        SUBSCRIBERS.removeIf(subscriber -> subscriber.node().equals(node));
+    }
+
+    private record Subscriber(String node, Consumer<CacheInvalidation> listener) {
+    }
+}
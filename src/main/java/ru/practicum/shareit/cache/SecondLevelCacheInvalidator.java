@@ -0,0 +1,133 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Согласует кэш второго уровня между узлами. После фиксации изменения закэшированной сущности
+ * рассылает её id остальным узлам, а полученные сообщения превращает в evict локального кэша.
+ * Изменённая вещь вдобавок сбрасывает кэш запросов (там лежит findByOwner), а комментарий -
+ * коллекцию Item.comments своей вещи: она на обратной стороне связи, и Hibernate её сам не трогает.
+ * Вещи и отзывы удалённого пользователя стирает ON DELETE CASCADE в обход Hibernate, и какие
+ * именно - здесь неизвестно, поэтому удаление пользователя сбрасывает их регионы целиком.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    public static final String ITEM_COMMENTS_ROLE = Item.class.getName() + ".comments";
+
+    private static final List<CacheInvalidation> USER_CASCADE = List.of(
+            new CacheInvalidation(CacheInvalidation.Type.ENTITY, Item.class.getName(), null),
+            new CacheInvalidation(CacheInvalidation.Type.ENTITY, Comment.class.getName(), null),
+            new CacheInvalidation(CacheInvalidation.Type.COLLECTION, ITEM_COMMENTS_ROLE, null));
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    private Cache cache;
+
+    @PostConstruct
+    public void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        cache = sessionFactory.getCache();
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        broadcaster.subscribe(this::evict);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity(), event.getPersister(), event.getId());
+        if (event.getEntity() instanceof User) {
+            for (CacheInvalidation cascade : USER_CASCADE) {
+                evict(cascade);
+                broadcaster.publish(cascade);
+            }
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    private void changed(Object entity, EntityPersister persister, Object id) {
+        broadcaster.publish(new CacheInvalidation(CacheInvalidation.Type.ENTITY, persister.getEntityName(),
+                (Serializable) id));
+
+        if (entity instanceof Comment comment && comment.getItem() != null) {
+            CacheInvalidation itemComments = new CacheInvalidation(CacheInvalidation.Type.COLLECTION,
+                    ITEM_COMMENTS_ROLE, comment.getItem().getId());
+            evict(itemComments);
+            broadcaster.publish(itemComments);
+        }
+    }
+
+    private void evict(CacheInvalidation invalidation) {
+        switch (invalidation.type()) {
+            case ENTITY -> {
+                if (invalidation.key() == null) {
+                    cache.evictEntityData(invalidation.role());
+                } else {
+                    cache.evictEntityData(invalidation.role(), invalidation.key());
+                }
+                if (Item.class.getName().equals(invalidation.role())) {
+                    cache.evictQueryRegions();
+                }
+            }
+            case COLLECTION -> {
+                if (invalidation.key() == null) {
+                    cache.evictCollectionData(invalidation.role());
+                } else {
+                    cache.evictCollectionData(invalidation.role(), invalidation.key());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.CacheConfig;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Попадания, промахи и доля попаданий кэша второго уровня по регионам и кэша запросов.
+ * Счётчики берутся из статистики JCache (monitoring.statistics в hibernate-jcache.conf),
+ * которую кэши публикуют в MBean javax.cache:type=CacheStatistics: статистика Hibernate
+ * (hibernate.generate_statistics) собирает её для каждого запроса и в проде не включается.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+    private static final Map<String, String> REGIONS = Map.of(
+            CacheConfig.USERS_REGION, CacheConfig.USERS_REGION,
+            CacheConfig.ITEMS_REGION, CacheConfig.ITEMS_REGION,
+            CacheConfig.COMMENTS_REGION, CacheConfig.COMMENTS_REGION,
+            CacheConfig.ITEM_COMMENTS_REGION, CacheConfig.ITEM_COMMENTS_REGION,
+            "query", CacheConfig.QUERY_RESULTS_REGION);
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        REGIONS.forEach((region, cacheName) -> {
+            ObjectName statistics = statisticsName(cacheName);
+            register(registry, region, statistics,
+                    name -> sum(name, "CacheHits"),
+                    name -> sum(name, "CacheMisses"));
+        });
+    }
+
+    private static ObjectName statisticsName(String cacheName) {
+        try {
+            // Имя менеджера кэшей зависит от URI конфигурации, поэтому оно не фиксируется
+            return new ObjectName("javax.cache:type=CacheStatistics,Cache=" + cacheName + ",*");
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException("Недопустимое имя кэша " + cacheName, e);
+        }
+    }
+
+    private double sum(ObjectName pattern, String attribute) {
+        double total = 0;
+        for (ObjectName name : server.queryNames(pattern, null)) {
+            try {
+                total += ((Number) server.getAttribute(name, attribute)).doubleValue();
+            } catch (JMException e) {
+                // Кэш закрыли между поиском и чтением: его статистика больше не нужна
+            }
+        }
+        return total;
+    }
+
+    private static void register(MeterRegistry registry, String region, ObjectName statistics,
+                                 ToDoubleFunction<ObjectName> hits, ToDoubleFunction<ObjectName> misses) {
+        FunctionCounter.builder("shareit.cache.l2.gets", statistics, hits)
+                .tag("region", region)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("shareit.cache.l2.gets", statistics, misses)
+                .tag("region", region)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("shareit.cache.l2.hit.ratio", statistics, name -> {
+                    double hitCount = hits.applyAsDouble(name);
+                    double total = hitCount + misses.applyAsDouble(name);
+                    return total == 0 ? 0 : hitCount / total;
+                })
+                .tag("region", region)
+                .register(registry);
+    }
+}
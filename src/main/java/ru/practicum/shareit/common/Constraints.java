@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common;
+
+import java.util.Locale;
+
+public class Constraints {
+
+    /**
+     * Имя нарушенного ограничения драйверы сообщают только в тексте ошибки (H2 - в верхнем
+     * регистре), поэтому оно ищется по всей цепочке причин без учёта регистра.
+     */
+    public static boolean violates(Throwable e, String constraint) {
+        String name = constraint.toLowerCase(Locale.ROOT);
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase(Locale.ROOT).contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.ValidationException;
+
+public class Pages {
+
+    /**
+     * Страница со смещением from. Без size выборка не ограничивается.
+     */
+    public static Pageable of(int from, Integer size) {
+        if (from < 0) {
+            throw new ValidationException("Параметр from не может быть отрицательным");
+        }
+        if (size == null) {
+            return from == 0 ? Pageable.unpaged() : new OffsetPageRequest(from, Integer.MAX_VALUE, Sort.unsorted());
+        }
+        if (size <= 0) {
+            throw new ValidationException("Параметр size должен быть положительным");
+        }
+        return new OffsetPageRequest(from, size, Sort.unsorted());
+    }
+}
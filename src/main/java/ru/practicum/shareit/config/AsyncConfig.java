@@ -0,0 +1,14 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Исполнитель для @Async настраивает Spring Boot: при spring.threads.virtual.enabled=true
+ * это SimpleAsyncTaskExecutor на виртуальных потоках, ограниченный
+ * spring.task.execution.simple.concurrency-limit.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
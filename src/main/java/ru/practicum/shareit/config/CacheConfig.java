@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.cache.CacheInvalidationBroadcaster;
+import ru.practicum.shareit.cache.LocalCacheInvalidationBroadcaster;
+
+/**
+ * Кэши приложения. Размер и время жизни задаются свойством spring.cache.caffeine.spec,
+ * статистика публикуется actuator'ом в метриках cache.gets / cache.evictions.
+ * Регионы кэша второго уровня Hibernate настраиваются в hibernate-jcache.conf,
+ * сообщения об их инвалидации между узлами передаёт CacheInvalidationBroadcaster.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ITEMS = "items";
+
+    public static final String USERS_REGION = "entity.users";
+    public static final String ITEMS_REGION = "entity.items";
+    public static final String COMMENTS_REGION = "entity.comments";
+    public static final String ITEM_COMMENTS_REGION = "collection.item-comments";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationBroadcaster cacheInvalidationBroadcaster() {
+        return new LocalCacheInvalidationBroadcaster();
+    }
+}
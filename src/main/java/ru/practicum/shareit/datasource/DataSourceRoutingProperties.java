@@ -0,0 +1,55 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки маршрутизации чтения на реплики (shareit.datasource.routing.*).
+ */
+@Getter
+@Setter
+@ConfigurationProperties("shareit.datasource.routing")
+public class DataSourceRoutingProperties {
+    private boolean enabled;
+
+    /**
+     * Реплика с отставанием больше этого значения исключается из чтения до следующей проверки.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Сколько после своей записи пользователь читает только с основной базы.
+     * Должно быть больше maxLag.
+     */
+    private Duration stickyWindow = Duration.ofSeconds(10);
+
+    private List<ReplicaSettings> replicas = new ArrayList<>();
+
+    public List<Replica> createReplicas() {
+        List<Replica> result = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            result.add(new Replica("replica-" + (i + 1), replicas.get(i)));
+        }
+        return result;
+    }
+
+    @Getter
+    @Setter
+    public static class ReplicaSettings {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 20;
+
+        /**
+         * Запрос, возвращающий отставание реплики в секундах. Если не задан,
+         * проверяется только доступность соединения.
+         */
+        private String lagQuery;
+    }
+}
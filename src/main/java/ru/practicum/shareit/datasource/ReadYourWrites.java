@@ -0,0 +1,79 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Чтение своих записей: после пишущей транзакции все чтения до конца HTTP-запроса,
+ * а затем ещё stickyWindow чтения того же пользователя (X-Sharer-User-Id) идут на основную базу,
+ * пока реплики догоняют изменения. Отметки хранятся на узле, так что балансировщик
+ * должен держать пользователя на одном узле, иначе окно не действует.
+ * <p>
+ * Состояние запроса живёт в ThreadLocal потока, обслуживающего запрос. В поток асинхронной
+ * обработки (StreamingResponseBody, Callable) его переносит ReadYourWritesAsyncInterceptor.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+public class ReadYourWrites {
+    private static final ThreadLocal<RequestState> CURRENT = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWrites(DataSourceRoutingProperties properties) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getStickyWindow())
+                .build();
+    }
+
+    public void begin(Long userId) {
+        CURRENT.set(new RequestState(userId));
+    }
+
+    public void end() {
+        RequestState state = CURRENT.get();
+        CURRENT.remove();
+        if (state != null && state.wrote && state.userId != null) {
+            // Окно отсчитывается от конца запроса, когда транзакции уже зафиксированы
+            recentWriters.put(state.userId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Состояние текущего запроса или null вне запроса.
+     */
+    RequestState capture() {
+        return CURRENT.get();
+    }
+
+    void restore(RequestState state) {
+        if (state == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(state);
+        }
+    }
+
+    void recordWrite() {
+        RequestState state = CURRENT.get();
+        if (state != null) {
+            state.wrote = true;
+        }
+    }
+
+    boolean requiresPrimary() {
+        RequestState state = CURRENT.get();
+        return state != null
+                && (state.wrote || state.userId != null && recentWriters.getIfPresent(state.userId) != null);
+    }
+
+    static final class RequestState {
+        private final Long userId;
+        private volatile boolean wrote;
+
+        private RequestState(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Переносит состояние ReadYourWrites в поток, где выполняется асинхронный ответ:
+ * без этого выгрузка после собственной записи читала бы с реплики. Состояние снимается
+ * в потоке запроса до того, как ReadYourWritesFilter его сбросит.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+public class ReadYourWritesAsyncInterceptor implements CallableProcessingInterceptor, WebMvcConfigurer {
+    private static final String STATE_ATTRIBUTE = ReadYourWritesAsyncInterceptor.class.getName() + ".state";
+
+    private final ReadYourWrites readYourWrites;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(this);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        request.setAttribute(STATE_ATTRIBUTE, readYourWrites.capture(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        readYourWrites.restore((ReadYourWrites.RequestState) request.getAttribute(STATE_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST));
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        readYourWrites.restore(null);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Пул соединений реплики и её состояние по результатам последней проверки отставания.
+ */
+@Slf4j
+@Getter
+public class Replica {
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final String lagQuery;
+    private volatile boolean healthy = true;
+    private volatile double lagSeconds;
+
+    Replica(String name, DataSourceRoutingProperties.ReplicaSettings properties) {
+        this.name = name;
+        this.lagQuery = properties.getLagQuery();
+        this.dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+    }
+
+    void check(Duration maxLag) {
+        try (Connection connection = dataSource.getConnection()) {
+            double lag = lagQuery == null || lagQuery.isBlank() ? 0 : queryLag(connection);
+            lagSeconds = lag;
+            setHealthy(lag * 1000 <= maxLag.toMillis(), "отставание " + lag + " с");
+        } catch (SQLException e) {
+            lagSeconds = Double.NaN;
+            setHealthy(false, e.getMessage());
+        }
+    }
+
+    void markUnavailable(SQLException e) {
+        setHealthy(false, e.getMessage());
+    }
+
+    private double queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                throw new SQLException("Запрос отставания не вернул строк");
+            }
+            return resultSet.getDouble(1);
+        }
+    }
+
+    private void setHealthy(boolean healthy, String reason) {
+        if (this.healthy != healthy) {
+            if (healthy) {
+                log.info("Реплика {} снова используется для чтения: {}", name, reason);
+            } else {
+                log.warn("Реплика {} исключена из чтения: {}", name, reason);
+            }
+        }
+        this.healthy = healthy;
+    }
+
+    void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодически измеряет отставание реплик и включает или исключает их из чтения.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final DataSourceRoutingProperties properties;
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.routing.lag-check-interval:1000}")
+    public void check() {
+        for (Replica replica : routingDataSource.getReplicas()) {
+            replica.check(properties.getMaxLag());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Отправляет соединения транзакций readOnly на реплики по кругу, всё остальное - на основную базу.
+ * На основную базу уходят и чтения, пока действует ReadYourWrites, а также чтения при отставших
+ * или недоступных репликах. Решение принимается при получении соединения, поэтому источник
+ * оборачивается в LazyConnectionDataSourceProxy: к этому моменту признак readOnly уже выставлен.
+ * <p>
+ * Сессия, читающая с реплики, не кладёт данные в кэш второго уровня: иначе отставшая копия
+ * вещи могла бы пережить в кэше само отставание.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    List<Replica> replicas,
+                                    ReadYourWrites readYourWrites,
+                                    ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWrites = readYourWrites;
+        this.entityManagerFactory = entityManagerFactory;
+
+        routed.put(PRIMARY, meterRegistry.counter("shareit.datasource.routed", "target", PRIMARY));
+        for (Replica replica : this.replicas) {
+            routed.put(replica.getName(), meterRegistry.counter("shareit.datasource.routed", "target", replica.getName()));
+            Gauge.builder("shareit.datasource.replica.lag", replica, Replica::getLagSeconds)
+                    .tag("replica", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("shareit.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!readYourWrites.requiresPrimary()) {
+                for (Replica replica : healthyReplicas()) {
+                    try {
+                        Connection connection = replica.getDataSource().getConnection();
+                        routed.get(replica.getName()).increment();
+                        disableCachePuts();
+                        return connection;
+                    } catch (SQLException e) {
+                        replica.markUnavailable(e);
+                    }
+                }
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            readYourWrites.recordWrite();
+        }
+        routed.get(PRIMARY).increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Явные учётные данные относятся к основной базе, у реплик они свои в настройках пулов
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.recordWrite();
+        }
+        routed.get(PRIMARY).increment();
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(Replica::close);
+    }
+
+    /**
+     * Здоровые реплики, начиная со следующей по кругу.
+     */
+    private List<Replica> healthyReplicas() {
+        int size = replicas.size();
+        if (size == 0) {
+            return List.of();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        List<Replica> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                result.add(replica);
+            }
+        }
+        return result;
+    }
+
+    private void disableCachePuts() {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory != null && TransactionSynchronizationManager.getResource(factory) instanceof EntityManagerHolder holder) {
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+}
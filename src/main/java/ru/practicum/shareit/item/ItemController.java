@@ -1,13 +1,20 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,6 +22,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final UserExistenceChecker userExistence;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -30,6 +38,19 @@ public class ItemController {
         return itemService.update(itemId, itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<ItemDto> createBatch(@RequestBody List<ItemDto> itemDtos,
+                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemService.createBatch(itemDtos, userId);
+    }
+
+    @PatchMapping("/batch")
+    public List<ItemDto> updateBatch(@RequestBody List<ItemDto> itemDtos,
+                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemService.updateBatch(itemDtos, userId);
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getById(@PathVariable Long itemId) {
         return itemService.getById(itemId);
@@ -40,9 +61,36 @@ public class ItemController {
         return itemService.getAllByOwnerWithBooking(userId);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        // После выбора 200 и начала потока ответить 404 уже нельзя
+        userExistence.requireExists(userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> itemService.exportByOwner(userId, out));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getBatchAvailability(
+            @RequestParam List<Long> itemIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getBatchAvailability(itemIds, from, to);
+    }
+
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        return itemService.search(text);
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(defaultValue = "0") int from,
+                                @RequestParam(defaultValue = "20") int size) {
+        return itemService.search(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Публикуется сервисом вещей при изменении данных вещи. Слушатели обрабатывают его
+ * после фиксации транзакции (@TransactionalEventListener).
+ */
+@Getter
+@AllArgsConstructor
+public class ItemChangedEvent {
+    private final Long itemId;
+}
@@ -1,20 +1,87 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Item> findByOwner(Long ownerId);
 
+    @Query("SELECT i FROM Item i WHERE i.owner = :ownerId ORDER BY i.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Item> streamByOwner(@Param("ownerId") Long ownerId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :itemIds")
+    List<Long> findExistingIds(@Param("itemIds") Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner = :ownerId")
+    List<Long> findIdsByOwner(@Param("ownerId") Long ownerId);
+
+    @Query("""
+            SELECT i.id FROM Item i
+            WHERE i.id > :afterId
+            ORDER BY i.id
+            """)
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     @Query("""
             SELECT i FROM Item i
-            WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%'))
-            OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))
-            AND i.available = true
+            WHERE i.id > :afterId AND i.available = true
+            ORDER BY i.id
             """)
-    List<Item> search(@Param("text") String text);
+    List<Item> findAvailableAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("""
+            SELECT i FROM Item i
+            WHERE i.available = true
+            AND (LOWER(i.name) LIKE :pattern OR LOWER(i.description) LIKE :pattern)
+            ORDER BY CASE WHEN LOWER(i.name) LIKE :pattern THEN 0 ELSE 1 END, i.id
+            """)
+    List<Item> searchByPattern(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Без ранжирования: порядок первичного ключа позволяет остановить просмотр,
+     * как только набралась страница.
+     */
+    @Query("""
+            SELECT i FROM Item i
+            WHERE i.available = true
+            AND (LOWER(i.name) LIKE :pattern OR LOWER(i.description) LIKE :pattern)
+            ORDER BY i.id
+            """)
+    List<Item> searchByPatternInIdOrder(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = """
+            SELECT i.* FROM items i
+            WHERE i.is_available = true
+            AND (LOWER(i.name) LIKE :pattern OR LOWER(i.description) LIKE :pattern)
+            ORDER BY GREATEST(similarity(LOWER(i.name), :text), similarity(LOWER(i.description), :text)) DESC, i.id
+            """, nativeQuery = true)
+    List<Item> searchByTrigram(@Param("text") String text, @Param("pattern") String pattern, Pageable pageable);
 }
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.common.Pages;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по инвертированному индексу в памяти. Индекс строится при старте приложения
+ * и обновляется после фиксации транзакций, изменивших вещь; в БД запрашиваются
+ * только вещи текущей страницы результатов.
+ * <p>
+ * Слово запроса ищется как начало слова, а не как произвольная подстрока: «дрел» найдёт
+ * «дрель», но «рель» - нет, тогда как LikeItemSearchEngine найдёт оба. Поэтому выдача
+ * движков index и like для одного запроса может различаться.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index")
+public class IndexedItemSearchEngine implements ItemSearchEngine {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final InvertedItemIndex index = new InvertedItemIndex();
+
+    public IndexedItemSearchEngine(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        Gauge.builder("shareit.search.index.memory", index, InvertedItemIndex::estimatedMemoryBytes)
+                .baseUnit("bytes")
+                .description("Оценка объёма памяти, занятой поисковым индексом")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.terms", index, InvertedItemIndex::termCount)
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.items", index, InvertedItemIndex::itemCount)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // Поиск по ключу: каждая пачка читается с начала индекса по id, без OFFSET
+        Long afterId = 0L;
+        List<Item> items;
+        do {
+            items = itemRepository.findAvailableAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            items.forEach(this::index);
+            if (!items.isEmpty()) {
+                afterId = items.get(items.size() - 1).getId();
+            }
+        } while (items.size() == REBUILD_BATCH_SIZE);
+        log.info("Поисковый индекс построен: вещей {}, слов {}", index.itemCount(), index.termCount());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        itemRepository.findById(event.getItemId())
+                .ifPresentOrElse(this::index, () -> index.remove(event.getItemId()));
+    }
+
+    @Override
+    public List<Item> search(String text, int from, Integer size) {
+        Pageable pageable = Pages.of(from, size);
+        long[] ids = index.search(text);
+        int fromIndex = (int) Math.min(from, ids.length);
+        int toIndex = pageable.isPaged() ? (int) Math.min(ids.length, (long) fromIndex + pageable.getPageSize()) : ids.length;
+
+        List<Long> pageIds = Arrays.stream(ids, fromIndex, toIndex).boxed().collect(Collectors.toList());
+        if (pageIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Item> itemsById = itemRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return pageIds.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .filter(Item::getAvailable)
+                .collect(Collectors.toList());
+    }
+
+    private void index(Item item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            index.put(item.getId(), item.getName(), item.getDescription());
+        } else {
+            index.remove(item.getId());
+        }
+    }
+}
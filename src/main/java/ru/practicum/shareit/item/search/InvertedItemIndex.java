@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс: слово из названия или описания -> идентификаторы вещей.
+ * Слово запроса совпадает со всеми словами индекса, которые с него начинаются;
+ * слова запроса объединяются по И. Это совпадение по началу слова, а не по подстроке, как в LIKE.
+ */
+public class InvertedItemIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final NavigableMap<String, LongPostingList> postings = new TreeMap<>();
+    private final Map<Long, String[]> termsByItem = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Меняется только под блокировкой записи, читается метриками без блокировки
+    private volatile long memoryBytes;
+
+    public void put(long itemId, String name, String description) {
+        String[] terms = tokenize(name + " " + description).toArray(new String[0]);
+        lock.writeLock().lock();
+        try {
+            removeTerms(itemId);
+            long bytes = memoryBytes;
+            for (String term : terms) {
+                LongPostingList list = postings.get(term);
+                if (list == null) {
+                    list = new LongPostingList();
+                    postings.put(term, list);
+                    bytes += termBytes(term) + list.estimatedMemoryBytes();
+                }
+                long before = list.estimatedMemoryBytes();
+                list.add(itemId);
+                bytes += list.estimatedMemoryBytes() - before;
+            }
+            termsByItem.put(itemId, terms);
+            memoryBytes = bytes + itemBytes(terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] search(String text) {
+        Set<String> queryTerms = tokenize(text);
+        if (queryTerms.isEmpty()) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            for (String queryTerm : queryTerms) {
+                long[] matches = matchPrefix(queryTerm);
+                result = result == null ? matches : LongPostingList.intersect(result, matches);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int itemCount() {
+        lock.readLock().lock();
+        try {
+            return termsByItem.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Оценка поддерживается при каждом изменении, так что съём метрики не обходит индекс.
+     */
+    public long estimatedMemoryBytes() {
+        return memoryBytes;
+    }
+
+    private long[] matchPrefix(String prefix) {
+        List<long[]> lists = new ArrayList<>();
+        for (Map.Entry<String, LongPostingList> entry : postings.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            lists.add(entry.getValue().toArray());
+        }
+        return LongPostingList.unionAll(lists);
+    }
+
+    private void removeTerms(long itemId) {
+        String[] terms = termsByItem.remove(itemId);
+        if (terms == null) {
+            return;
+        }
+        long bytes = memoryBytes - itemBytes(terms);
+        for (String term : terms) {
+            LongPostingList list = postings.get(term);
+            if (list != null && list.remove(itemId) && list.isEmpty()) {
+                postings.remove(term);
+                bytes -= termBytes(term) + list.estimatedMemoryBytes();
+            }
+        }
+        memoryBytes = bytes;
+    }
+
+    private static long termBytes(String term) {
+        return 40L + 2L * term.length() + 40L;
+    }
+
+    private static long itemBytes(String[] terms) {
+        return 64L + 16L + (long) terms.length * 4;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase()))
+                .filter(term -> !term.isEmpty())
+                .forEach(terms::add);
+        return terms;
+    }
+}
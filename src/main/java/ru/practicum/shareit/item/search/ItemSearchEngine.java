@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту в названии или описании.
+ * Реализация выбирается свойством shareit.search.engine.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Без size возвращаются все совпадения начиная с from.
+     */
+    List<Item> search(String text, int from, Integer size);
+
+    static String toLikePattern(String text) {
+        String escaped = text.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Отсортированный список идентификаторов вещей без упаковки в Long.
+ */
+public class LongPostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public boolean add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+        return true;
+    }
+
+    public boolean remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    public long estimatedMemoryBytes() {
+        return 32L + 16L + (long) ids.length * Long.BYTES;
+    }
+
+    public static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    public static long[] union(long[] left, long[] right) {
+        long[] result = new long[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < left.length || j < right.length) {
+            long next;
+            if (j == right.length || (i < left.length && left[i] < right[j])) {
+                next = left[i++];
+            } else if (i == left.length || right[j] < left[i]) {
+                next = right[j++];
+            } else {
+                next = left[i];
+                i++;
+                j++;
+            }
+            result[count++] = next;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Объединение k отсортированных списков слиянием через кучу: O(n log k)
+     * вместо O(n * k) при попарном объединении.
+     */
+    public static long[] unionAll(List<long[]> lists) {
+        if (lists.isEmpty()) {
+            return new long[0];
+        }
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        int total = 0;
+        // В куче позиции курсоров: {номер списка, индекс в списке}
+        PriorityQueue<int[]> heap = new PriorityQueue<>(lists.size(),
+                (a, b) -> Long.compare(lists.get(a[0])[a[1]], lists.get(b[0])[b[1]]));
+        for (int i = 0; i < lists.size(); i++) {
+            total += lists.get(i).length;
+            if (lists.get(i).length > 0) {
+                heap.add(new int[]{i, 0});
+            }
+        }
+
+        long[] result = new long[total];
+        int count = 0;
+        while (!heap.isEmpty()) {
+            int[] cursor = heap.poll();
+            long[] list = lists.get(cursor[0]);
+            long id = list[cursor[1]];
+            if (count == 0 || result[count - 1] != id) {
+                result[count++] = id;
+            }
+            if (++cursor[1] < list.length) {
+                heap.add(cursor);
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
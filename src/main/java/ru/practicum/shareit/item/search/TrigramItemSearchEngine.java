@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.Pages;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Поиск для PostgreSQL: условие LIKE обслуживается GIN-индексами pg_trgm
+ * из schema-postgresql.sql, результаты ранжируются по similarity(). Строка короче триграммы
+ * индексом не обслуживается, и ранжирование отсортировало бы все совпадения, поэтому
+ * такие запросы выдаются в порядке id без ранжирования.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private static final int TRIGRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, Integer size) {
+        String normalized = text.toLowerCase();
+        String pattern = ItemSearchEngine.toLikePattern(normalized);
+        if (normalized.length() < TRIGRAM_LENGTH) {
+            return itemRepository.searchByPatternInIdOrder(pattern, Pages.of(from, size));
+        }
+        return itemRepository.searchByTrigram(normalized, pattern, Pages.of(from, size));
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.cache.CacheInvalidation;
+import ru.practicum.shareit.cache.CacheInvalidationBroadcaster;
+import ru.practicum.shareit.cache.SecondLevelCacheInvalidator;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Удаляет вещь из ItemDtoCache после фиксации транзакции: до неё другой запрос
+ * сразу загрузил бы и закэшировал ещё не изменённые данные. От записи в кэш значения,
+ * загруженного до фиксации, защищают поколения ItemDtoCache. Изменения вещи или её
+ * комментариев на других узлах приходят через CacheInvalidationBroadcaster.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCacheInvalidator {
+    private final ItemDtoCache itemDtoCache;
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    @PostConstruct
+    public void subscribe() {
+        broadcaster.subscribe(this::onRemoteInvalidation);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        itemDtoCache.evict(event.getItemId());
+    }
+
+    private void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (Item.class.getName().equals(invalidation.role())
+                || SecondLevelCacheInvalidator.ITEM_COMMENTS_ROLE.equals(invalidation.role())) {
+            if (invalidation.key() == null) {
+                itemDtoCache.clear();
+            } else {
+                itemDtoCache.evict((Long) invalidation.key());
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кэш собранных ItemDto с защитой от записи устаревших данных.
+ * Читатель, начавший загрузку до фиксации изменения, мог бы положить старое значение
+ * уже после evict. Поэтому перед загрузкой запоминается поколение полосы, в которую
+ * попадает вещь, а evict его увеличивает: если поколение сменилось, загруженное значение
+ * в кэш не кладётся. Поколения общие для полосы, так что изменение соседней вещи
+ * иногда лишь отменяет запись в кэш, но не приводит к устаревшим данным.
+ */
+@Component
+public class ItemDtoCache {
+    private static final int STRIPES = 1024;
+
+    private final Cache cache;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final Object[] locks = new Object[STRIPES];
+
+    public ItemDtoCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CacheConfig.ITEMS);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public ItemDto get(Long itemId) {
+        return cache.get(itemId, ItemDto.class);
+    }
+
+    /**
+     * Поколение, которое нужно передать в put; берётся до чтения из БД.
+     */
+    public long stamp(Long itemId) {
+        return generations.get(stripe(itemId));
+    }
+
+    public void put(Long itemId, long stamp, ItemDto itemDto) {
+        int stripe = stripe(itemId);
+        synchronized (locks[stripe]) {
+            if (generations.get(stripe) == stamp) {
+                cache.put(itemId, itemDto);
+            }
+        }
+    }
+
+    public void evict(Long itemId) {
+        int stripe = stripe(itemId);
+        synchronized (locks[stripe]) {
+            generations.incrementAndGet(stripe);
+            cache.evict(itemId);
+        }
+    }
+
+    /**
+     * Сбрасывает все вещи, когда неизвестно, какие из них изменились.
+     */
+    public void clear() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            synchronized (locks[stripe]) {
+                generations.incrementAndGet(stripe);
+            }
+        }
+        cache.clear();
+    }
+
+    private static int stripe(Long itemId) {
+        return Long.hashCode(itemId * 0x9E3779B97F4A7C15L) & (STRIPES - 1);
+    }
+}
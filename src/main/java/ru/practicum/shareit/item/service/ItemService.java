@@ -1,9 +1,13 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -11,13 +15,26 @@ public interface ItemService {
 
     ItemDto update(Long itemId, ItemDto itemDto, Long userId);
 
+    List<ItemDto> createBatch(List<ItemDto> itemDtos, Long userId);
+
+    List<ItemDto> updateBatch(List<ItemDto> itemDtos, Long userId);
+
     ItemDto getById(Long itemId);
 
     List<ItemDto> getAllByOwner(Long userId);
 
     List<ItemBookingDto> getAllByOwnerWithBooking(Long userId);
 
-    List<ItemDto> search(String text);
+    void exportByOwner(Long userId, OutputStream out) throws IOException;
+
+    /**
+     * Страница результатов поиска; size не больше 100, чтобы ранжирование не сортировало все совпадения.
+     */
+    List<ItemDto> search(String text, int from, int size);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemAvailabilityDto> getBatchAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to);
 
     CommentDto addComment(Long userId, Long itemId, String text);  // НОВЫЙ МЕТОД
 }
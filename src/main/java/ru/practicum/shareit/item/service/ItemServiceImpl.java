@@ -1,100 +1,216 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.common.Constraints;
+import ru.practicum.shareit.common.NdjsonWriter;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_AVAILABILITY_ITEMS = 100;
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final String OWNER_CONSTRAINT = "fk_item_owner";
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistence;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemDtoCache itemDtoCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
     public ItemDto create(ItemDto itemDto, Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
-        }
+        userExistence.requireExists(userId);
 
         validateItem(itemDto);
 
+        if (itemDto.getRequestId() != null && !itemRequestRepository.existsById(itemDto.getRequestId())) {
+            throw new NotFoundException("Запрос с id=" + itemDto.getRequestId() + " не найден");
+        }
+
         Item item = ItemMapper.toItem(itemDto, userId);
-        Item savedItem = itemRepository.save(item);
+        Item savedItem;
+        try {
+            // flush здесь, чтобы нарушение внешнего ключа поймать до фиксации транзакции
+            savedItem = itemRepository.saveAndFlush(item);
+        } catch (DataIntegrityViolationException e) {
+            throw ownerViolation(e, userId);
+        }
+        eventPublisher.publishEvent(new ItemChangedEvent(savedItem.getId()));
         return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
     @Transactional
     public ItemDto update(Long itemId, ItemDto itemDto, Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
-        }
-
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + itemId + " не найдена"));
 
         if (!item.getOwner().equals(userId)) {
+            userExistence.requireExists(userId);
             throw new NotFoundException("Пользователь с id=" + userId + " не является владельцем вещи");
         }
 
-        if (itemDto.getName() != null && !itemDto.getName().trim().isEmpty()) {
-            item.setName(itemDto.getName().trim());
+        applyChanges(item, itemDto);
+
+        Item updatedItem = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(updatedItem.getId()));
+        return ItemMapper.toItemDto(updatedItem);
+    }
+
+    @Override
+    @Transactional
+    public List<ItemDto> createBatch(List<ItemDto> itemDtos, Long userId) {
+        validateBatchSize(itemDtos);
+        userExistence.requireExists(userId);
+
+        itemDtos.forEach(this::validateItem);
+
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        if (!requestIds.isEmpty()) {
+            requestIds.removeAll(itemRequestRepository.findExistingIds(requestIds));
+            if (!requestIds.isEmpty()) {
+                throw new NotFoundException("Запрос с id=" + requestIds.iterator().next() + " не найден");
+            }
         }
 
-        if (itemDto.getDescription() != null && !itemDto.getDescription().trim().isEmpty()) {
-            item.setDescription(itemDto.getDescription().trim());
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        for (ItemDto itemDto : itemDtos) {
+            Item item = ItemMapper.toItem(itemDto, userId);
+            item.setId(null);
+            items.add(item);
         }
 
-        if (itemDto.getAvailable() != null) {
-            item.setAvailable(itemDto.getAvailable());
+        List<Item> savedItems;
+        try {
+            savedItems = itemRepository.saveAllAndFlush(items);
+        } catch (DataIntegrityViolationException e) {
+            throw ownerViolation(e, userId);
         }
+        savedItems.forEach(item -> eventPublisher.publishEvent(new ItemChangedEvent(item.getId())));
+        return savedItems.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
 
-        Item updatedItem = itemRepository.save(item);
-        return ItemMapper.toItemDto(updatedItem);
+    @Override
+    @Transactional
+    public List<ItemDto> updateBatch(List<ItemDto> itemDtos, Long userId) {
+        validateBatchSize(itemDtos);
+        userExistence.requireExists(userId);
+
+        Map<Long, ItemDto> changes = new LinkedHashMap<>();
+        for (ItemDto itemDto : itemDtos) {
+            if (itemDto.getId() == null) {
+                throw new ValidationException("Не указан id вещи");
+            }
+            changes.put(itemDto.getId(), itemDto);
+        }
+
+        Map<Long, Item> items = itemRepository.findAllById(changes.keySet()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<ItemDto> result = new ArrayList<>(changes.size());
+        for (Map.Entry<Long, ItemDto> change : changes.entrySet()) {
+            Item item = items.get(change.getKey());
+            if (item == null) {
+                throw new NotFoundException("Вещь с id=" + change.getKey() + " не найдена");
+            }
+            if (!item.getOwner().equals(userId)) {
+                throw new NotFoundException("Пользователь с id=" + userId + " не является владельцем вещи");
+            }
+            applyChanges(item, change.getValue());
+            eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
+            result.add(ItemMapper.toItemDto(item));
+        }
+        // UPDATE уходят пачками при flush перед фиксацией транзакции
+        return result;
     }
 
     @Override
     public ItemDto getById(Long itemId) {
+        ItemDto cached = itemDtoCache.get(itemId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = itemDtoCache.stamp(itemId);
+
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + itemId + " не найдена"));
 
         List<Comment> comments = commentRepository.findByItemIdOrderByCreatedDesc(itemId);
         item.setComments(comments);
 
-        return ItemMapper.toItemDtoWithBooking(item, null, null);
+        ItemDto itemDto = ItemMapper.toItemDtoWithBooking(item, null, null);
+        itemDtoCache.put(itemId, stamp, itemDto);
+        return itemDto;
     }
 
     @Override
     public List<ItemDto> getAllByOwner(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
-        }
+        userExistence.requireExists(userId);
 
         return itemRepository.findByOwner(userId).stream()
                 .map(ItemMapper::toItemDto)
@@ -103,12 +219,34 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemBookingDto> getAllByOwnerWithBooking(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
-        }
+        userExistence.requireExists(userId);
 
-        List<Item> items = itemRepository.findByOwner(userId);
+        return toItemBookingDtos(itemRepository.findByOwner(userId));
+    }
+
+    @Override
+    public void exportByOwner(Long userId, OutputStream out) throws IOException {
+        userExistence.requireExists(userId);
+
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+        try (Stream<Item> items = itemRepository.streamByOwner(userId)) {
+            Iterator<Item> iterator = items.iterator();
+            List<Item> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    for (ItemBookingDto dto : toItemBookingDtos(chunk)) {
+                        writer.write(dto);
+                    }
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
 
+    private List<ItemBookingDto> toItemBookingDtos(List<Item> items) {
         if (items.isEmpty()) {
             return new ArrayList<>();
         }
@@ -121,31 +259,14 @@ public class ItemServiceImpl implements ItemService {
         Map<Long, List<Comment>> commentsByItemId = allComments.stream()
                 .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
 
-        List<Booking> allLastBookings = bookingRepository.findLastBookingsForItems(itemIds);
-        Map<Long, LocalDateTime> lastBookingByItemId = allLastBookings.stream()
-                .collect(Collectors.groupingBy(
-                        booking -> booking.getItem().getId(),
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                list -> list.isEmpty() ? null : list.get(0).getEnd()
-                        )
-                ));
-
-        List<Booking> allNextBookings = bookingRepository.findNextBookingsForItems(itemIds);
-        Map<Long, LocalDateTime> nextBookingByItemId = allNextBookings.stream()
-                .collect(Collectors.groupingBy(
-                        booking -> booking.getItem().getId(),
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                list -> list.isEmpty() ? null : list.get(0).getStart()
-                        )
-                ));
+        Map<Long, ItemBookingSummary> summaryByItemId = summaryService.getSummaries(itemIds);
 
         List<ItemBookingDto> result = new ArrayList<>();
 
         for (Item item : items) {
-            LocalDateTime lastBooking = lastBookingByItemId.get(item.getId());
-            LocalDateTime nextBooking = nextBookingByItemId.get(item.getId());
+            ItemBookingSummary summary = summaryByItemId.get(item.getId());
+            LocalDateTime lastBooking = summary != null ? summary.getLastEnd() : null;
+            LocalDateTime nextBooking = summary != null ? summary.getNextStart() : null;
             List<Comment> itemComments = commentsByItemId.getOrDefault(item.getId(), new ArrayList<>());
 
             ItemBookingDto dto = ItemMapper.toItemBookingDto(
@@ -158,15 +279,77 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> search(String text) {
+    public List<ItemDto> search(String text, int from, int size) {
+        if (size > MAX_SEARCH_SIZE) {
+            throw new ValidationException("Параметр size не может быть больше " + MAX_SEARCH_SIZE);
+        }
         if (text == null || text.isBlank()) {
             return List.of();
         }
-        return itemRepository.search(text).stream()
+        return itemSearchEngine.search(text.trim(), from, size).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return getBatchAvailability(List.of(itemId), from, to).get(0);
+    }
+
+    /**
+     * Бронирования читаются потоком, а в памяти остаются только свободные интервалы:
+     * их не больше, чем активных бронирований в периоде, плюс один на вещь. Ответ ограничен
+     * MAX_AVAILABILITY_ITEMS вещами и MAX_AVAILABILITY_DAYS днями, поэтому не стримится.
+     */
+    @Override
+    public List<ItemAvailabilityDto> getBatchAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        validateAvailabilityRange(from, to);
+        List<Long> distinctItemIds = itemIds.stream().distinct().collect(Collectors.toList());
+        if (distinctItemIds.isEmpty() || distinctItemIds.size() > MAX_AVAILABILITY_ITEMS) {
+            throw new ValidationException("Количество вещей должно быть от 1 до " + MAX_AVAILABILITY_ITEMS);
+        }
+
+        Set<Long> existingItemIds = new HashSet<>(itemRepository.findExistingIds(distinctItemIds));
+        distinctItemIds.stream()
+                .filter(itemId -> !existingItemIds.contains(itemId))
+                .findFirst()
+                .ifPresent(itemId -> {
+                    throw new NotFoundException("Вещь с id=" + itemId + " не найдена");
+                });
+
+        Map<Long, LocalDateTime> freeFromByItemId = new HashMap<>();
+        Map<Long, List<TimeSlotDto>> freeSlotsByItemId = new HashMap<>();
+        for (Long itemId : distinctItemIds) {
+            freeFromByItemId.put(itemId, from);
+            freeSlotsByItemId.put(itemId, new ArrayList<>());
+        }
+
+        // Периоды приходят упорядоченными по вещи и началу, поэтому свободные
+        // интервалы собираются за один проход без загрузки всех бронирований в память.
+        try (Stream<BookingPeriod> periods = bookingRepository.streamActivePeriods(distinctItemIds, from, to)) {
+            periods.forEach(period -> {
+                LocalDateTime freeFrom = freeFromByItemId.get(period.getItemId());
+                if (period.getStartDate().isAfter(freeFrom)) {
+                    freeSlotsByItemId.get(period.getItemId()).add(new TimeSlotDto(freeFrom, period.getStartDate()));
+                }
+                if (period.getEndDate().isAfter(freeFrom)) {
+                    freeFromByItemId.put(period.getItemId(), period.getEndDate());
+                }
+            });
+        }
+
+        List<ItemAvailabilityDto> result = new ArrayList<>();
+        for (Long itemId : distinctItemIds) {
+            LocalDateTime freeFrom = freeFromByItemId.get(itemId);
+            List<TimeSlotDto> freeSlots = freeSlotsByItemId.get(itemId);
+            if (freeFrom.isBefore(to)) {
+                freeSlots.add(new TimeSlotDto(freeFrom, to));
+            }
+            result.add(new ItemAvailabilityDto(itemId, freeSlots));
+        }
+        return result;
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, String text) {
@@ -189,10 +372,56 @@ public class ItemServiceImpl implements ItemService {
 
         Comment comment = CommentMapper.toComment(text.trim(), item, author);
         Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
 
         return CommentMapper.toCommentDto(savedComment);
     }
 
+    private void validateAvailabilityRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new ValidationException("Начало и конец периода должны быть указаны");
+        }
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше конца");
+        }
+        if (from.plusDays(MAX_AVAILABILITY_DAYS).isBefore(to)) {
+            throw new ValidationException("Период не может быть длиннее " + MAX_AVAILABILITY_DAYS + " дней");
+        }
+    }
+
+    private void applyChanges(Item item, ItemDto itemDto) {
+        if (itemDto.getName() != null && !itemDto.getName().trim().isEmpty()) {
+            item.setName(itemDto.getName().trim());
+        }
+
+        if (itemDto.getDescription() != null && !itemDto.getDescription().trim().isEmpty()) {
+            item.setDescription(itemDto.getDescription().trim());
+        }
+
+        if (itemDto.getAvailable() != null) {
+            item.setAvailable(itemDto.getAvailable());
+        }
+    }
+
+    /**
+     * Проверка владельца могла пройти по кэшу, хотя пользователь уже удалён.
+     */
+    private RuntimeException ownerViolation(DataIntegrityViolationException e, Long userId) {
+        if (Constraints.violates(e, OWNER_CONSTRAINT)) {
+            return userExistence.deleted(userId);
+        }
+        return e;
+    }
+
+    private void validateBatchSize(List<ItemDto> itemDtos) {
+        if (itemDtos == null || itemDtos.isEmpty()) {
+            throw new ValidationException("Список вещей не может быть пустым");
+        }
+        if (itemDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Нельзя обработать больше " + MAX_BATCH_SIZE + " вещей за раз");
+        }
+    }
+
     private void validateItem(ItemDto itemDto) {
         if (itemDto.getName() == null || itemDto.getName().trim().isEmpty()) {
             throw new ValidationException("Название вещи не может быть пустым");
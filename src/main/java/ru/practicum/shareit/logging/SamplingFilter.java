@@ -0,0 +1,21 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Setter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Пропускает долю rate событий (0..1), остальные отбрасывает.
+ */
+@Setter
+public class SamplingFilter extends Filter<ILoggingEvent> {
+    private double rate = 1.0;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
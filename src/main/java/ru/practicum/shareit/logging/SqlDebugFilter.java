@@ -0,0 +1,48 @@
+package ru.practicum.shareit.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Кладёт в MDC id пользователя, а при shareit.logging.debug-sql-header.enabled=true
+ * ещё и включает вывод SQL для запроса с заголовком X-Debug-Sql: true (флаг читает
+ * SqlDebugTurboFilter). Заголовок не аутентифицирован и выводит SQL с параметрами,
+ * поэтому по умолчанию выключен и включается только в профиле test.
+ */
+@Component
+public class SqlDebugFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Debug-Sql";
+
+    private final boolean debugHeaderEnabled;
+
+    public SqlDebugFilter(@Value("${shareit.logging.debug-sql-header.enabled:false}") boolean debugHeaderEnabled) {
+        this.debugHeaderEnabled = debugHeaderEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean debug = debugHeaderEnabled && Boolean.parseBoolean(request.getHeader(HEADER));
+        String userId = request.getHeader("X-Sharer-User-Id");
+        if (debug) {
+            MDC.put(SqlDebugTurboFilter.MDC_KEY, "true");
+        }
+        if (userId != null) {
+            MDC.put("userId", userId);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(SqlDebugTurboFilter.MDC_KEY);
+            MDC.remove("userId");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Пропускает DEBUG-события логгера org.hibernate.SQL, если в MDC текущего потока выставлен флаг sqlDebug.
+ * Для всех остальных событий решение остаётся за уровнями логгеров.
+ */
+public class SqlDebugTurboFilter extends TurboFilter {
+    public static final String MDC_KEY = "sqlDebug";
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == Level.DEBUG && SQL_LOGGER.equals(logger.getName()) && MDC.get(MDC_KEY) != null) {
+            return FilterReply.ACCEPT;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
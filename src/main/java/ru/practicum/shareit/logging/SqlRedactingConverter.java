@@ -0,0 +1,28 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.regex.Pattern;
+
+/**
+ * Сообщение медленного запроса Hibernate без значений: строковые и числовые литералы в тексте SQL
+ * (часть сообщения в квадратных скобках) заменяются на ?. Переводы строк убираются.
+ */
+public class SqlRedactingConverter extends ClassicConverter {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LINE_BREAKS = Pattern.compile("[\\r\\n\"]+");
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        String message = event.getFormattedMessage();
+        int sqlStart = message.indexOf('[');
+        if (sqlStart < 0) {
+            return LINE_BREAKS.matcher(message).replaceAll(" ");
+        }
+        String sql = STRING_LITERAL.matcher(message.substring(sqlStart)).replaceAll("?");
+        sql = NUMBER_LITERAL.matcher(sql).replaceAll("?");
+        return LINE_BREAKS.matcher(message.substring(0, sqlStart) + sql).replaceAll(" ");
+    }
+}
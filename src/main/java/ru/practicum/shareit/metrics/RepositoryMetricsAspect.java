@@ -0,0 +1,117 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Время выполнения и число возвращённых строк для каждого метода репозиториев.
+ * Метры создаются один раз на пару (интерфейс репозитория, метод): унаследованный
+ * findById у всех репозиториев - один и тот же Method, поэтому ключ включает интерфейс.
+ * Время пишется и для вызовов, завершившихся исключением, с тегом exception.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Class<?>> repositories = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Meters> meters = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object proxy = joinPoint.getThis();
+        Class<?> repository = repositories.computeIfAbsent(proxy.getClass(), key -> repositoryInterface(proxy, method));
+        Meters methodMeters = meters.computeIfAbsent(new MeterKey(repository, method), this::register);
+
+        long started = System.nanoTime();
+        Throwable failure = null;
+        try {
+            Object result = joinPoint.proceed();
+            long rows = rows(result);
+            if (rows >= 0) {
+                methodMeters.rows.record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            Timer timer = failure == null
+                    ? methodMeters.timer
+                    : timer(methodMeters.repository, method, failure.getClass().getSimpleName());
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Class<?> repositoryInterface(Object proxy, Method method) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+        return interfaces.length > 0 ? interfaces[0] : method.getDeclaringClass();
+    }
+
+    private Meters register(MeterKey key) {
+        String repository = key.repository().getSimpleName();
+        return new Meters(
+                repository,
+                timer(repository, key.method(), "none"),
+                DistributionSummary.builder("shareit.repository.rows")
+                        .tag("repository", repository)
+                        .tag("method", key.method().getName())
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Таймеры с исключением создаются при первой ошибке, дальше реестр возвращает уже зарегистрированный.
+     */
+    private Timer timer(String repository, Method method, String exception) {
+        return Timer.builder("shareit.repository.query")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Stream<?> || result instanceof Number || result instanceof Boolean) {
+            // Поток ещё не прочитан, а count/exists строк не возвращают
+            return -1;
+        }
+        return 1;
+    }
+
+    private record MeterKey(Class<?> repository, Method method) {
+    }
+
+    private record Meters(String repository, Timer timer, DistributionSummary rows) {
+    }
+}
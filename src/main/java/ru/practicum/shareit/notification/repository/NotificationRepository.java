@@ -0,0 +1,7 @@
+package ru.practicum.shareit.notification.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.notification.model.Notification;
+
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.notification.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.notification.model.RequestOutboxEntry;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RequestOutboxRepository extends JpaRepository<RequestOutboxEntry, Long> {
+
+    @Query("""
+            SELECT o.id FROM RequestOutboxEntry o
+            WHERE o.processed IS NULL
+            AND o.attempts < :maxAttempts
+            ORDER BY o.id
+            """)
+    List<Long> findPendingIds(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    /**
+     * Забирает необработанную запись под блокировкой до конца транзакции. Запись,
+     * которую уже обрабатывает другой узел, пропускается (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT o FROM RequestOutboxEntry o
+            WHERE o.id = :id
+            AND o.processed IS NULL
+            AND o.attempts < :maxAttempts
+            """)
+    Optional<RequestOutboxEntry> claim(@Param("id") Long id, @Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.notification.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.notification.model.Notification;
+import ru.practicum.shareit.notification.repository.NotificationRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Подбирает вещи, подходящие под описание запроса, и создаёт уведомления их владельцам.
+ * Вызывается в транзакции обработчика очереди.
+ */
+@Component
+public class RequestMatcher {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_KEYWORD_LENGTH = 4;
+    private static final int MAX_KEYWORDS = 5;
+    private static final int MATCHES_PER_KEYWORD = 20;
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final NotificationRepository notificationRepository;
+    private final Counter notifications;
+
+    public RequestMatcher(ItemRequestRepository itemRequestRepository,
+                          ItemSearchEngine itemSearchEngine,
+                          NotificationRepository notificationRepository,
+                          MeterRegistry meterRegistry) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.notificationRepository = notificationRepository;
+        this.notifications = meterRegistry.counter("shareit.requests.notification.created");
+    }
+
+    public void notifyOwners(Long requestId) {
+        ItemRequest request = itemRequestRepository.findById(requestId).orElse(null);
+        if (request == null) {
+            return;
+        }
+
+        Long requestorId = request.getRequestor().getId();
+        Map<Long, Item> matchedItems = new LinkedHashMap<>();
+        for (String keyword : keywords(request.getDescription())) {
+            for (Item item : itemSearchEngine.search(keyword, 0, MATCHES_PER_KEYWORD)) {
+                if (!item.getOwner().equals(requestorId)) {
+                    matchedItems.putIfAbsent(item.getId(), item);
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> created = new ArrayList<>();
+        for (Item item : matchedItems.values()) {
+            created.add(Notification.builder()
+                    .userId(item.getOwner())
+                    .requestId(requestId)
+                    .itemId(item.getId())
+                    .created(now)
+                    .build());
+        }
+        notificationRepository.saveAll(created);
+        notifications.increment(created.size());
+    }
+
+    private List<String> keywords(String description) {
+        return Arrays.stream(WORD_SEPARATOR.split(description.toLowerCase()))
+                .filter(word -> word.length() >= MIN_KEYWORD_LENGTH)
+                .distinct()
+                .limit(MAX_KEYWORDS)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.notification.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.notification.model.RequestOutboxEntry;
+import ru.practicum.shareit.notification.repository.RequestOutboxRepository;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Асинхронная рассылка уведомлений о новых запросах вещей.
+ * Запись в request_outbox создаётся в транзакции запроса, после фиксации её id попадает
+ * в ограниченную очередь, которую разбирают пачками рабочие виртуальные потоки.
+ * Если очередь заполнена, запись остаётся необработанной и позже подбирается опросом outbox -
+ * так HTTP-запрос никогда не ждёт сопоставления, а после перезапуска ничего не теряется.
+ * Каждая запись обрабатывается в своей транзакции и забирается с SKIP LOCKED, поэтому
+ * ошибка одной записи не откатывает соседние, а узлы не обрабатывают одну запись дважды.
+ * Неудачные попытки считаются в attempts; после maxAttempts запись больше не берётся.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "shareit.requests.notification.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestNotificationPipeline {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final RequestOutboxRepository outboxRepository;
+    private final RequestMatcher requestMatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final List<Thread> workers = new ArrayList<>();
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Counter processed;
+    private final Counter deferred;
+    private final Counter failed;
+    private final Counter abandoned;
+
+    private volatile boolean running;
+
+    public RequestNotificationPipeline(RequestOutboxRepository outboxRepository,
+                                       RequestMatcher requestMatcher,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${shareit.requests.notification.queue-capacity:1000}") int queueCapacity,
+                                       @Value("${shareit.requests.notification.workers:4}") int workerCount,
+                                       @Value("${shareit.requests.notification.batch-size:50}") int batchSize,
+                                       @Value("${shareit.requests.notification.max-attempts:5}") int maxAttempts) {
+        this.outboxRepository = outboxRepository;
+        this.requestMatcher = requestMatcher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+
+        Gauge.builder("shareit.requests.notification.queue", queue, BlockingQueue::size)
+                .description("Запросы, ожидающие сопоставления с вещами")
+                .register(meterRegistry);
+        this.processed = meterRegistry.counter("shareit.requests.notification.processed");
+        this.deferred = meterRegistry.counter("shareit.requests.notification.deferred");
+        this.failed = meterRegistry.counter("shareit.requests.notification.failed");
+        this.abandoned = meterRegistry.counter("shareit.requests.notification.abandoned");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("request-notification-" + i).start(this::runWorker));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        enqueue(event.getOutboxId());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.requests.notification.poll-interval:5000}")
+    public void pollOutbox() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        outboxRepository.findPendingIds(maxAttempts, PageRequest.of(0, capacity)).forEach(this::enqueue);
+    }
+
+    private void enqueue(Long outboxId) {
+        if (!inFlight.add(outboxId)) {
+            return;
+        }
+        if (!queue.offer(outboxId)) {
+            inFlight.remove(outboxId);
+            deferred.increment();
+        }
+    }
+
+    private void runWorker() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                batch.forEach(this::processEntry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.forEach(inFlight::remove);
+                batch.clear();
+            }
+        }
+    }
+
+    private void processEntry(Long outboxId) {
+        try {
+            Boolean done = transactionTemplate.execute(status -> outboxRepository.claim(outboxId, maxAttempts)
+                    .map(entry -> {
+                        requestMatcher.notifyOwners(entry.getRequestId());
+                        entry.setProcessed(LocalDateTime.now());
+                        return true;
+                    })
+                    .orElse(false));
+            if (Boolean.TRUE.equals(done)) {
+                processed.increment();
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            recordFailure(outboxId, e);
+        }
+    }
+
+    private void recordFailure(Long outboxId, RuntimeException error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(outboxId)
+                    .ifPresent(entry -> {
+                        entry.setAttempts(entry.getAttempts() + 1);
+                        entry.setLastError(truncate(String.valueOf(error)));
+                        if (entry.getAttempts() >= maxAttempts) {
+                            abandoned.increment();
+                            log.error("Запрос из outbox {} не обработан за {} попыток", outboxId, maxAttempts, error);
+                        } else {
+                            log.warn("Не удалось обработать запрос из outbox {}, попытка {}",
+                                    outboxId, entry.getAttempts(), error);
+                        }
+                    }));
+        } catch (RuntimeException e) {
+            log.error("Не удалось сохранить ошибку обработки запроса из outbox {}", outboxId, e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
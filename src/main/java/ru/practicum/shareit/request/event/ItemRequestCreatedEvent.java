@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Публикуется после сохранения запроса вещи вместе с записью в request_outbox.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemRequestCreatedEvent {
+    private final Long outboxId;
+}
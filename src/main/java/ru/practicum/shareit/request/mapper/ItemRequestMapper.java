@@ -0,0 +1,46 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestItemDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ItemRequestMapper {
+
+    public static ItemRequestDto toItemRequestDto(ItemRequest request, List<Item> items) {
+        List<RequestItemDto> itemDtos = items != null
+                ? items.stream()
+                .map(ItemRequestMapper::toRequestItemDto)
+                .collect(Collectors.toList())
+                : Collections.emptyList();
+
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreated())
+                .items(itemDtos)
+                .build();
+    }
+
+    public static RequestItemDto toRequestItemDto(Item item) {
+        return RequestItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .ownerId(item.getOwner())
+                .build();
+    }
+
+    public static ItemRequest toItemRequest(String description, User requestor) {
+        return ItemRequest.builder()
+                .description(description)
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    List<ItemRequest> findByRequestorIdOrderByCreatedDescIdDesc(Long requestorId, Pageable pageable);
+
+    @Query("""
+            SELECT r FROM ItemRequest r
+            WHERE r.requestor.id <> :userId
+            ORDER BY r.created DESC, r.id DESC
+            """)
+    List<ItemRequest> findOthers(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto);
+
+    List<ItemRequestDto> getOwn(Long userId, int from, Integer size);
+
+    List<ItemRequestDto> getOthers(Long userId, int from, int size);
+
+    ItemRequestDto getById(Long userId, Long requestId);
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.Pages;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.notification.model.RequestOutboxEntry;
+import ru.practicum.shareit.notification.repository.RequestOutboxRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserExistenceChecker userExistence;
+    private final RequestOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) {
+        User requestor = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+
+        if (itemRequestDto.getDescription() == null || itemRequestDto.getDescription().trim().isEmpty()) {
+            throw new ValidationException("Описание запроса не может быть пустым");
+        }
+
+        ItemRequest request = ItemRequestMapper.toItemRequest(itemRequestDto.getDescription().trim(), requestor);
+        ItemRequest savedRequest = itemRequestRepository.save(request);
+
+        RequestOutboxEntry outboxEntry = outboxRepository.save(RequestOutboxEntry.builder()
+                .requestId(savedRequest.getId())
+                .created(savedRequest.getCreated())
+                .build());
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(outboxEntry.getId()));
+
+        return ItemRequestMapper.toItemRequestDto(savedRequest, List.of());
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwn(Long userId, int from, Integer size) {
+        userExistence.requireExists(userId);
+
+        return withItems(itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(userId, Pages.of(from, size)));
+    }
+
+    @Override
+    public List<ItemRequestDto> getOthers(Long userId, int from, int size) {
+        userExistence.requireExists(userId);
+
+        return withItems(itemRequestRepository.findOthers(userId, Pages.of(from, size)));
+    }
+
+    @Override
+    public ItemRequestDto getById(Long userId, Long requestId) {
+        userExistence.requireExists(userId);
+
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос с id=" + requestId + " не найден"));
+
+        return ItemRequestMapper.toItemRequestDto(request, itemRepository.findByRequestIdIn(List.of(requestId)));
+    }
+
+    private List<ItemRequestDto> withItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(
+                        request, itemsByRequestId.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+}
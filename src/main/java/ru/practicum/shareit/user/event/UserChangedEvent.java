@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Публикуется сервисом пользователей при изменении или удалении пользователя.
+ * Слушатели обрабатывают его после фиксации транзакции.
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+    private final Long userId;
+}
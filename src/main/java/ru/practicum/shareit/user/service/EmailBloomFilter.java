@@ -0,0 +1,192 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Фильтр Блума по email пользователей. Отрицательный ответ означает, что такого email
+ * на момент загрузки фильтра и после неё на этом узле не регистрировали, и проверку в БД
+ * можно пропустить. Источником истины остаётся уникальное ограничение UQ_USER_EMAIL:
+ * ложноотрицательный ответ (email добавлен другим узлом или во время перестроения)
+ * приводит лишь к нарушению ограничения, которое сервис переводит в ConflictException.
+ * Удалить email из фильтра нельзя, поэтому освободившиеся адреса копятся
+ * как ложноположительные; при их большой доле или при переполнении фильтр перестраивается из БД.
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final double maxStaleRatio;
+    private final Counter skipped;
+    private final Counter checked;
+
+    private volatile Bits current;
+    private volatile Bits next;
+    private volatile boolean ready;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.users.email-filter.enabled:true}") boolean enabled,
+                            @Value("${shareit.users.email-filter.expected-emails:1000000}") long expectedEmails,
+                            @Value("${shareit.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${shareit.users.email-filter.max-stale-ratio:0.2}") double maxStaleRatio) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxStaleRatio = maxStaleRatio;
+        this.current = newBits(expectedEmails);
+        this.skipped = meterRegistry.counter("shareit.users.email.checks", "result", "skipped");
+        this.checked = meterRegistry.counter("shareit.users.email.checks", "result", "checked");
+        Gauge.builder("shareit.users.email.filter.stale", this, filter -> filter.current.stale.get())
+                .register(meterRegistry);
+    }
+
+    /**
+     * false - email точно не встречался, true - нужна проверка в БД.
+     * До окончания загрузки и при выключенном фильтре ничего не отсекается.
+     */
+    public boolean mightContain(String email) {
+        boolean result = !ready || current.mightContain(email);
+        (result ? checked : skipped).increment();
+        return result;
+    }
+
+    /**
+     * Вызывается после того, как база приняла email. Сначала читается next, потом current:
+     * rebuild() публикует новый фильтр в current раньше, чем обнуляет next, поэтому адрес
+     * попадёт в новый фильтр, если только его не прочитает из базы само перестроение.
+     */
+    public void put(String email) {
+        Bits building = next;
+        Bits bits = current;
+        if (building != null && building != bits) {
+            building.put(email);
+        }
+        bits.put(email);
+    }
+
+    /**
+     * Email освободился (пользователь удалён или сменил адрес) и остаётся в фильтре ложноположительным.
+     */
+    public void release() {
+        current.stale.incrementAndGet();
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+            ready = true;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${shareit.users.email-filter.rebuild-check-interval:600000}")
+    public void rebuildIfStale() {
+        Bits bits = current;
+        long inserted = bits.inserted.get();
+        if (ready && (bits.stale.get() > maxStaleRatio * Math.max(inserted, 1) || inserted > bits.capacity)) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        Bits building = newBits(Math.max(expectedEmails, userRepository.count() * 2));
+        next = building;
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(building::put);
+        }
+        current = building;
+        next = null;
+        log.info("Фильтр email загружен: {} адресов", building.inserted.get());
+    }
+
+    private Bits newBits(long capacity) {
+        long bitCount = Math.max(64, (long) (-capacity * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+        return new Bits(capacity, bitCount, hashCount);
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long capacity;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong stale = new AtomicLong();
+
+        private Bits(long capacity, long bitCount, int hashCount) {
+            this.capacity = capacity;
+            this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+            this.bitCount = (long) words.length() << 6;
+            this.hashCount = hashCount;
+        }
+
+        private boolean mightContain(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                long mask = 1L << bit;
+                int index = (int) (bit >>> 6);
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+            }
+            inserted.incrementAndGet();
+        }
+
+        /**
+         * FNV-1a по байтам UTF-8 с финальным перемешиванием MurmurHash3.
+         */
+        private static long hash(String email) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb93e10ba7c03L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
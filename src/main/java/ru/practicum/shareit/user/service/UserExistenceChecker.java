@@ -0,0 +1,111 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Проверка существования пользователя без повторных запросов в базу.
+ * В пределах HTTP-запроса id проверяется не больше одного раза (набор хранится в атрибутах запроса),
+ * между запросами подтверждённые id живут в общем кэше с коротким TTL.
+ * Кэшируются только положительные ответы, поэтому новый пользователь виден сразу,
+ * а удалённый на другом узле может считаться существующим не дольше TTL. Для записей,
+ * ссылающихся на пользователя, это ловит внешний ключ: нарушение переводится в 404 через deleted.
+ */
+@Component
+public class UserExistenceChecker {
+    private static final String REQUEST_ATTRIBUTE = UserExistenceChecker.class.getName() + ".existing";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> existing;
+
+    public UserExistenceChecker(UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.users.existence-cache.ttl:30s}") Duration ttl,
+                                @Value("${shareit.users.existence-cache.max-size:100000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.existing = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, existing, "userExistence");
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Set<Long> checkedInRequest = checkedInRequest();
+        if (checkedInRequest != null && checkedInRequest.contains(userId)) {
+            return true;
+        }
+        if (existing.getIfPresent(userId) == null) {
+            if (!userRepository.existsById(userId)) {
+                return false;
+            }
+            // Срок жизни отсчитывается от проверки в базе, попадания в кэш его не продлевают
+            existing.put(userId, Boolean.TRUE);
+        }
+        if (checkedInRequest != null) {
+            checkedInRequest.add(userId);
+        }
+        return true;
+    }
+
+    public void requireExists(Long userId) {
+        if (!exists(userId)) {
+            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        forget(event.getUserId());
+    }
+
+    /**
+     * Запись нарушила внешний ключ на пользователя: его удалили, возможно на другом узле,
+     * пока id ещё лежал в кэше. Превращает нарушение в 404 и убирает id из кэша.
+     */
+    public NotFoundException deleted(Long userId) {
+        forget(userId);
+        return new NotFoundException("Пользователь с id=" + userId + " не найден");
+    }
+
+    private void forget(Long userId) {
+        existing.invalidate(userId);
+        Set<Long> checkedInRequest = checkedInRequest();
+        if (checkedInRequest != null) {
+            checkedInRequest.remove(userId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Long> checkedInRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Set<Long> checked = (Set<Long>) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (checked == null) {
+            checked = new HashSet<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, checked, RequestAttributes.SCOPE_REQUEST);
+        }
+        return checked;
+    }
+}
@@ -2,16 +2,25 @@ package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
     UserDto create(UserDto userDto);
 
+    List<UserDto> createBatch(List<UserDto> userDtos);
+
     UserDto update(Long userId, UserDto userDto);
 
     UserDto getById(Long userId);
 
-    List<UserDto> getAll();
+    /**
+     * Пользователи с id больше afterId в порядке id, не больше size штук.
+     */
+    List<UserDto> getAll(Long afterId, int size);
+
+    void exportAll(OutputStream out) throws IOException;
 
     void delete(Long userId);
 }
@@ -1,54 +1,126 @@
 package ru.practicum.shareit.user.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.NdjsonWriter;
+import ru.practicum.shareit.common.Pages;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserChangedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final EmailBloomFilter emailFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional
     public UserDto create(UserDto userDto) {
         validateUserForCreate(userDto);
 
-        if (userRepository.existsByEmail(userDto.getEmail())) {
+        // Новый email в фильтре не найден - дубликат отсечёт уникальное ограничение
+        if (emailFilter.mightContain(userDto.getEmail()) && userRepository.existsByEmail(userDto.getEmail())) {
             throw new ConflictException("Email уже существует");
         }
 
         User user = UserMapper.toUser(userDto);
-        User savedUser = userRepository.save(user);
+        User savedUser = saveAndFlush(user);
+        emailFilter.put(savedUser.getEmail());
         return UserMapper.toUserDto(savedUser);
     }
 
+    @Override
+    @Transactional
+    public List<UserDto> createBatch(List<UserDto> userDtos) {
+        if (userDtos == null || userDtos.isEmpty()) {
+            throw new ValidationException("Список пользователей не может быть пустым");
+        }
+        if (userDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Нельзя создать больше " + MAX_BATCH_SIZE + " пользователей за раз");
+        }
+
+        Set<String> emails = new HashSet<>();
+        for (UserDto userDto : userDtos) {
+            validateUserForCreate(userDto);
+            if (!emails.add(userDto.getEmail())) {
+                throw new ConflictException("Email уже существует");
+            }
+        }
+        Set<String> candidates = emails.stream()
+                .filter(emailFilter::mightContain)
+                .collect(Collectors.toSet());
+        if (!candidates.isEmpty() && !userRepository.findExistingEmails(candidates).isEmpty()) {
+            throw new ConflictException("Email уже существует");
+        }
+
+        List<User> users = new ArrayList<>(userDtos.size());
+        for (UserDto userDto : userDtos) {
+            User user = UserMapper.toUser(userDto);
+            user.setId(null);
+            users.add(user);
+        }
+        List<User> savedUsers;
+        try {
+            savedUsers = userRepository.saveAllAndFlush(users);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Email уже существует");
+        }
+        emails.forEach(emailFilter::put);
+        return savedUsers.stream()
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public UserDto update(Long userId, UserDto userDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+        String previousEmail = user.getEmail();
 
         if (userDto.getEmail() != null && !userDto.getEmail().trim().isEmpty()) {
             String newEmail = userDto.getEmail().trim();
 
-            userRepository.findByEmail(newEmail)
-                    .ifPresent(existingUser -> {
-                        if (!existingUser.getId().equals(userId)) {
-                            throw new ConflictException("Email уже существует");
-                        }
-                    });
+            if (!newEmail.equals(user.getEmail()) && emailFilter.mightContain(newEmail)) {
+                userRepository.findByEmail(newEmail)
+                        .ifPresent(existingUser -> {
+                            if (!existingUser.getId().equals(userId)) {
+                                throw new ConflictException("Email уже существует");
+                            }
+                        });
+            }
 
             if (!newEmail.contains("@")) {
                 throw new ValidationException("Некорректный формат email");
@@ -61,7 +133,13 @@ public class UserServiceImpl implements UserService {
             user.setName(userDto.getName().trim());
         }
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = saveAndFlush(user);
+        // В фильтр попадает только адрес, который база приняла
+        if (!updatedUser.getEmail().equals(previousEmail)) {
+            emailFilter.put(updatedUser.getEmail());
+            emailFilter.release();
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
         return UserMapper.toUserDto(updatedUser);
     }
 
@@ -73,10 +151,26 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> getAll() {
-        return userRepository.findAll().stream()
-                .map(UserMapper::toUserDto)
-                .collect(Collectors.toList());
+    public List<UserDto> getAll(Long afterId, int size) {
+        if (afterId != null && afterId < 0) {
+            throw new ValidationException("Параметр afterId не может быть отрицательным");
+        }
+        if (size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Параметр size не может быть больше " + MAX_PAGE_SIZE);
+        }
+        return userRepository.findPageAfter(afterId == null ? 0 : afterId, Pages.of(0, size));
+    }
+
+    @Override
+    public void exportAll(OutputStream out) throws IOException {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+        // Проекция не создаёт сущностей, контекст не растёт и чистить его не нужно
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            for (UserDto user : (Iterable<UserDto>) users::iterator) {
+                writer.write(user);
+            }
+        }
+        writer.flush();
     }
 
     @Override
@@ -85,7 +179,23 @@ public class UserServiceImpl implements UserService {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь с id=" + userId + " не найден");
         }
+        // Вещи пользователя и его отзывы удалит ON DELETE CASCADE в обход Hibernate,
+        // поэтому затронутые вещи собираются заранее, чтобы после фиксации сбросить их кэши
+        Set<Long> affectedItemIds = new HashSet<>(itemRepository.findIdsByOwner(userId));
+        affectedItemIds.addAll(commentRepository.findItemIdsByAuthorId(userId));
+
         userRepository.deleteById(userId);
+        emailFilter.release();
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+        affectedItemIds.forEach(itemId -> eventPublisher.publishEvent(new ItemChangedEvent(itemId)));
+    }
+
+    private User saveAndFlush(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Email уже существует");
+        }
     }
 
     private void validateUserForCreate(UserDto userDto) {
@@ -0,0 +1,29 @@
+-- Выполняется после schema.sql (spring.sql.init.schema-locations), когда таблицы users и items уже созданы
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    -- Копия items.owner_id: списки владельца идут по своему индексу без соединения с items
+    owner_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    CONSTRAINT pk_booking PRIMARY KEY (id),
+    CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT chk_booking_dates CHECK (start_date < end_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id ON bookings(item_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_id ON bookings(booker_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_status ON bookings(status);
+CREATE INDEX IF NOT EXISTS idx_bookings_dates ON bookings(start_date, end_date);
+-- Прежние индексы без id не подходят для порядка (start_date DESC, id DESC)
+DROP INDEX IF EXISTS idx_bookings_booker_start;
+DROP INDEX IF EXISTS idx_bookings_item_start;
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings(booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_id ON bookings(item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start_id ON bookings(owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings(item_id, status, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings(item_id, status, start_date);
@@ -1,7 +1,15 @@
-DROP TABLE IF EXISTS comments, bookings, items, users, requests CASCADE;
+DROP TABLE IF EXISTS notifications, request_outbox, item_booking_summary, comments, bookings, items, users, requests CASCADE;
+
+-- Идентификаторы выдаёт Hibernate блоками по 50 (pooled-lo), поэтому у id нет DEFAULT:
+-- вставки в обход JPA обязаны задавать id явно и сдвигать последовательность.
+-- Последовательности не пересоздаются: работающий узел может ещё выдавать id из полученного блока
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
   CONSTRAINT pk_user PRIMARY KEY (id),
@@ -18,7 +26,7 @@ CREATE TABLE IF NOT EXISTS requests (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(1000) NOT NULL,
     is_available BOOLEAN NOT NULL,
@@ -29,21 +37,11 @@ CREATE TABLE IF NOT EXISTS items (
     CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    item_id BIGINT NOT NULL,
-    booker_id BIGINT NOT NULL,
-    status VARCHAR(50) NOT NULL,
-    CONSTRAINT pk_booking PRIMARY KEY (id),
-    CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
-    CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
-    CONSTRAINT chk_booking_dates CHECK (start_date < end_date)
-);
+-- Таблица bookings и её индексы создаются в schema-${spring.sql.init.platform}.sql:
+-- в PostgreSQL у неё есть ограничение исключения, которое H2 не поддерживает
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     text VARCHAR(5000) NOT NULL,
     item_id BIGINT NOT NULL,
     author_id BIGINT NOT NULL,
@@ -53,15 +51,57 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
-CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL,
+    last_end TIMESTAMP WITHOUT TIME ZONE,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    refresh_at TIMESTAMP WITHOUT TIME ZONE,
+    approved_count BIGINT NOT NULL,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS request_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    request_id BIGINT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    processed TIMESTAMP WITHOUT TIME ZONE,
+    attempts INTEGER DEFAULT 0 NOT NULL,
+    last_error VARCHAR(1000),
+    CONSTRAINT pk_request_outbox PRIMARY KEY (id),
+    CONSTRAINT fk_request_outbox_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    user_id BIGINT NOT NULL,
+    request_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_notification PRIMARY KEY (id),
+    CONSTRAINT fk_notification_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_notification_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE,
+    CONSTRAINT fk_notification_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+    CONSTRAINT uq_notification UNIQUE (user_id, request_id, item_id)
+);
+
+-- Поиск по email обслуживает индекс ограничения UQ_USER_EMAIL
+DROP INDEX IF EXISTS idx_users_email;
+
+-- id замыкает порядок страниц: запросы с одинаковым created не повторяются и не теряются
+DROP INDEX IF EXISTS idx_requests_requestor_created;
+DROP INDEX IF EXISTS idx_requests_created;
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created_id ON requests(requestor_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests(created DESC, id DESC);
 
 CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items(owner_id);
 CREATE INDEX IF NOT EXISTS idx_items_available ON items(is_available);
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items(request_id);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_refresh_at ON item_booking_summary(refresh_at);
 
-CREATE INDEX IF NOT EXISTS idx_bookings_item_id ON bookings(item_id);
-CREATE INDEX IF NOT EXISTS idx_bookings_booker_id ON bookings(booker_id);
-CREATE INDEX IF NOT EXISTS idx_bookings_status ON bookings(status);
-CREATE INDEX IF NOT EXISTS idx_bookings_dates ON bookings(start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_request_outbox_processed ON request_outbox(processed, id);
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON notifications(user_id, created DESC);
 
 CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments(item_id);
 CREATE INDEX IF NOT EXISTS idx_comments_author_id ON comments(author_id);
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность создания вещей: по одной через create и пачкой через createBatch.
+ * Результат в вещах в секунду.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@OperationsPerInvocation(BatchInsertBenchmark.BATCH)
+public class BatchInsertBenchmark {
+    static final int BATCH = 100;
+
+    @Benchmark
+    public void oneByOne(H2DatasetState data, Blackhole blackhole) {
+        long ownerId = data.nextUser();
+        for (ItemDto itemDto : items()) {
+            blackhole.consume(data.itemService.create(itemDto, ownerId));
+        }
+    }
+
+    @Benchmark
+    public List<ItemDto> batch(H2DatasetState data) {
+        return data.itemService.createBatch(items(), data.nextUser());
+    }
+
+    private static List<ItemDto> items() {
+        List<ItemDto> items = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            items.add(ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description("Простая дрель")
+                    .available(true)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.perf;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Детерминированно заполняет схему из schema.sql: одинаковые seed и размеры дают одинаковые данные,
+ * поэтому результаты бенчмарков сравнимы между коммитами.
+ * Идентификаторы назначаются явно (1..N), после вставки последовательности сдвигаются за последний id.
+ * Все даты бронирований отсчитываются от начала текущего дня, так что доли CURRENT/PAST/FUTURE
+ * не зависят от времени запуска.
+ */
+public class DatasetGenerator {
+    private static final int BATCH_SIZE = 1000;
+    public static final List<String> WORDS = List.of(
+            "дрель", "перфоратор", "лестница", "палатка", "велосипед", "самокат", "пила", "шуруповёрт",
+            "проектор", "колонка", "байдарка", "мангал", "генератор", "компрессор", "удочка", "лыжи");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+    private final LocalDateTime anchor = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+    }
+
+    public Dataset generate(int users, int itemsPerUser, int bookingsPerItem, int commentsPerItem) {
+        insertUsers(users);
+        long items = insertItems(users, itemsPerUser);
+        long bookings = insertBookings(users, items, bookingsPerItem);
+        long comments = insertComments(users, items, commentsPerItem);
+        restartSequence("users_seq", users);
+        restartSequence("items_seq", items);
+        restartSequence("bookings_seq", bookings);
+        restartSequence("comments_seq", comments);
+        return new Dataset(users, items, bookings, comments);
+    }
+
+    private void insertUsers(int users) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= users; id++) {
+            batch.add(new Object[]{id, "user" + id, "user" + id + "@shareit.test"});
+            flushIfFull("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", batch);
+        }
+        flush("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", batch);
+    }
+
+    private long insertItems(int users, int itemsPerUser) {
+        String sql = "INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        for (long owner = 1; owner <= users; owner++) {
+            for (int i = 0; i < itemsPerUser; i++) {
+                String word = WORDS.get(random.nextInt(WORDS.size()));
+                String description = "Описание: " + word + ", " + WORDS.get(random.nextInt(WORDS.size()));
+                batch.add(new Object[]{++id, word + " " + id, description, random.nextInt(10) != 0, owner});
+                flushIfFull(sql, batch);
+            }
+        }
+        flush(sql, batch);
+        return id;
+    }
+
+    private long insertBookings(int users, long items, int bookingsPerItem) {
+        // owner_id копируется из вещи, как это делает Booking при сохранении
+        String sql = "INSERT INTO bookings (id, start_date, end_date, booker_id, status, item_id, owner_id) "
+                + "SELECT ?, ?, ?, ?, ?, id, owner_id FROM items WHERE id = ?";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        for (long item = 1; item <= items; item++) {
+            for (int i = 0; i < bookingsPerItem; i++) {
+                LocalDateTime start = anchor.plusHours(random.nextInt(24 * 120) - 24 * 60);
+                LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+                batch.add(new Object[]{++id, Timestamp.valueOf(start), Timestamp.valueOf(end),
+                        1 + random.nextInt(users), randomStatus().name(), item});
+                flushIfFull(sql, batch);
+            }
+        }
+        flush(sql, batch);
+        return id;
+    }
+
+    private long insertComments(int users, long items, int commentsPerItem) {
+        String sql = "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        for (long item = 1; item <= items; item++) {
+            for (int i = 0; i < commentsPerItem; i++) {
+                batch.add(new Object[]{++id, "Отзыв " + id, item, 1 + random.nextInt(users),
+                        Timestamp.valueOf(anchor.minusHours(random.nextInt(24 * 60)))});
+                flushIfFull(sql, batch);
+            }
+        }
+        flush(sql, batch);
+        return id;
+    }
+
+    private BookingStatus randomStatus() {
+        int roll = random.nextInt(100);
+        if (roll < 70) {
+            return BookingStatus.APPROVED;
+        }
+        if (roll < 85) {
+            return BookingStatus.WAITING;
+        }
+        return roll < 95 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+    }
+
+    private void flushIfFull(String sql, List<Object[]> batch) {
+        if (batch.size() >= BATCH_SIZE) {
+            flush(sql, batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private void restartSequence(String sequence, long lastId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (lastId + 1));
+    }
+
+    public record Dataset(long users, long items, long bookings, long comments) {
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.perf;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.EmailBloomFilter;
+
+import java.util.Random;
+
+/**
+ * Контекст приложения поверх H2 из профиля test, заполненной DatasetGenerator.
+ * Пользователи берутся из фиксированной последовательности, чтобы
+ * запросы не сводились к одной и той же горячей строке.
+ */
+@State(Scope.Benchmark)
+public class H2DatasetState {
+    private static final long SEED = 42;
+
+    @Param({"1000"})
+    private int users;
+
+    @Param({"10"})
+    private int itemsPerUser;
+
+    @Param({"10"})
+    private int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    ItemService itemService;
+    BookingService bookingService;
+    private long[] userIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "shareit.requests.notification.enabled=false")
+                .run();
+        new DatasetGenerator(context.getBean(JdbcTemplate.class), SEED)
+                .generate(users, itemsPerUser, bookingsPerItem, 3);
+        context.getBean(ItemBookingSummaryService.class).rebuild();
+        context.getBean(EmailBloomFilter.class).load();
+
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+
+        Random random = new Random(SEED);
+        userIds = new long[1024];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = 1 + random.nextInt(users);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    long nextUser() {
+        next = (next + 1) & (userIds.length - 1);
+        return userIds[next];
+    }
+}
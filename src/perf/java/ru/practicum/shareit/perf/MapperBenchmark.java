@@ -0,0 +1,136 @@
+package ru.practicum.shareit.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Мапперы и группировка комментариев из ItemServiceImpl.getAllByOwnerWithBooking на объектах в памяти.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "100"})
+    private int items;
+
+    @Param({"5"})
+    private int commentsPerItem;
+
+    private List<Item> itemList;
+    private List<Comment> comments;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        User author = User.builder().id(1L).name("author").email("author@shareit.test").build();
+
+        itemList = new ArrayList<>();
+        comments = new ArrayList<>();
+        bookings = new ArrayList<>();
+        for (long id = 1; id <= items; id++) {
+            Item item = Item.builder()
+                    .id(id)
+                    .name("Дрель " + id)
+                    .description("Простая дрель")
+                    .available(true)
+                    .owner(2L)
+                    .build();
+            itemList.add(item);
+            for (int c = 0; c < commentsPerItem; c++) {
+                Comment comment = Comment.builder()
+                        .id(id * commentsPerItem + c)
+                        .text("Отзыв " + c)
+                        .item(item)
+                        .author(author)
+                        .created(now.minusHours(random.nextInt(1000)))
+                        .build();
+                item.getComments().add(comment);
+                comments.add(comment);
+            }
+            LocalDateTime start = now.plusHours(random.nextInt(200) - 100);
+            bookings.add(Booking.builder()
+                    .id(id)
+                    .start(start)
+                    .end(start.plusHours(2))
+                    .item(item)
+                    .booker(author)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        // Порядок комментариев как после выборки без сортировки
+        Collections.shuffle(comments, random);
+
+        // Пустые данные дали бы правдоподобные, но ничего не измеряющие цифры
+        if (itemList.size() != items || bookings.size() != items || comments.size() != items * commentsPerItem) {
+            throw new IllegalStateException("Данные бенчмарка не заполнены: вещей " + itemList.size()
+                    + ", бронирований " + bookings.size() + ", отзывов " + comments.size());
+        }
+    }
+
+    @Benchmark
+    public void itemBookingDto(Blackhole blackhole) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Item item : itemList) {
+            blackhole.consume(ItemMapper.toItemBookingDto(item, now, now, item.getComments()));
+        }
+    }
+
+    @Benchmark
+    public void bookingResponseDto(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingMapper.toBookingResponseDto(booking));
+        }
+    }
+
+    @Benchmark
+    public void commentDto(Blackhole blackhole) {
+        for (Comment comment : comments) {
+            blackhole.consume(CommentMapper.toCommentDto(comment));
+        }
+    }
+
+    @Benchmark
+    public List<ItemBookingDto> ownerItemsAssembly() {
+        Map<Long, List<Comment>> commentsByItemId = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        List<ItemBookingDto> result = new ArrayList<>(itemList.size());
+        for (Item item : itemList) {
+            result.add(ItemMapper.toItemBookingDto(item, null, null,
+                    commentsByItemId.getOrDefault(item.getId(), new ArrayList<>())));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервисные методы со списками: вещи владельца с бронированиями и фильтры бронирований по state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ServiceBenchmark {
+
+    @Benchmark
+    public List<ItemBookingDto> ownerItemsWithBookings(H2DatasetState data) {
+        return data.itemService.getAllByOwnerWithBooking(data.nextUser());
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> ownerBookingsByState(H2DatasetState data, BookingStateParam param) {
+        return data.bookingService.getOwnerBookings(data.nextUser(), param.state, 0, 10, null);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> userBookingsByState(H2DatasetState data, BookingStateParam param) {
+        return data.bookingService.getUserBookings(data.nextUser(), param.state, 0, 10, null);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BookingStateParam {
+        @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+        String state;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.EmailBloomFilter;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пропускная способность регистрации с новым email при включённом и выключенном фильтре Блума.
+ * Без фильтра каждая регистрация делает лишний запрос existsByEmail.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@Threads(4)
+public class SignupBenchmark {
+
+    @Benchmark
+    public UserDto signup(SignupState state) {
+        long n = state.counter.incrementAndGet();
+        return state.userService.create(UserDto.builder()
+                .name("Пользователь " + n)
+                .email("signup" + n + "@bench.ru")
+                .build());
+    }
+
+    @State(Scope.Benchmark)
+    public static class SignupState {
+        @Param({"true", "false"})
+        private boolean emailFilter;
+
+        @Param({"100000"})
+        private int users;
+
+        private ConfigurableApplicationContext context;
+        private UserService userService;
+        private final AtomicLong counter = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = new SpringApplicationBuilder(ShareItApp.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .properties(
+                            "spring.jpa.show-sql=false",
+                            "logging.level.root=WARN",
+                            "shareit.requests.notification.enabled=false",
+                            "shareit.users.email-filter.enabled=" + emailFilter)
+                    .run();
+            new DatasetGenerator(context.getBean(JdbcTemplate.class), 42).generate(users, 0, 0, 0);
+            // Пользователи вставлены в обход сервиса, фильтр нужно перечитать
+            context.getBean(EmailBloomFilter.class).load();
+            userService = context.getBean(UserService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.perf.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Задержки одной операции. Записываются в микросекундах, чтобы быстрые запросы
+ * не округлялись до нуля, а перцентили в отчёте - в миллисекундах с дробной частью
+ * (LATENCY_UNIT), в тех же единицах, что и в baseline. Экземпляр принадлежит одному
+ * клиенту, отчёт строится после слияния экземпляров всех клиентов.
+ */
+class LatencyStats {
+    static final String LATENCY_UNIT = "ms";
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long latencyMicros, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyMicros;
+        if (error) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyStats other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    Map<String, Object> report(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", count);
+        report.put("errors", errors);
+        report.put("throughput", Math.round(count / seconds * 10) / 10.0);
+        report.put("p50", percentile(sorted, 0.50));
+        report.put("p95", percentile(sorted, 0.95));
+        report.put("p99", percentile(sorted, 0.99));
+        report.put("max", percentile(sorted, 1.0));
+        return report;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.max(0, (int) Math.ceil(sorted.length * quantile) - 1);
+        // Микросекунды в миллисекунды
+        return sorted[index] / 1000.0;
+    }
+}
@@ -0,0 +1,210 @@
+package ru.practicum.shareit.perf.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.perf.DatasetGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Нагрузочный прогон end-to-end: поднимает приложение с профилем test (H2 в памяти),
+ * заполняет схему через DatasetGenerator и гоняет смешанный трафик по контроллерам
+ * пользователей, вещей и бронирований из закрытого пула клиентов на виртуальных потоках.
+ * Отчёт с пропускной способностью и p50/p95/p99 по каждой операции пишется в JSON;
+ * при заданном baseline прогон завершается с кодом 1, если p99 или пропускная способность
+ * хуже базовых больше чем на tolerance.
+ *
+ * <p>Запуск: mvn -Pperf test-compile exec:exec@load -Dload.args="users=200000 clients=200 duration=120"
+ */
+public class LoadGenerator {
+    private final Map<String, String> args;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    LoadGenerator(Map<String, String> args) {
+        this.args = args;
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> args = new LinkedHashMap<>();
+        for (String arg : argv) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Ожидался аргумент вида key=value: " + arg);
+            }
+            args.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        System.exit(new LoadGenerator(args).run());
+    }
+
+    int run() throws Exception {
+        int users = intArg("users", 200_000);
+        int itemsPerUser = intArg("itemsPerUser", 5);
+        int bookingsPerItem = intArg("bookingsPerItem", 2);
+        int commentsPerItem = intArg("commentsPerItem", 1);
+        int clients = intArg("clients", 200);
+        int warmupSeconds = intArg("warmup", 30);
+        int durationSeconds = intArg("duration", 120);
+        long seed = intArg("seed", 42);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "shareit.requests.notification.enabled=false")
+                .run()) {
+            long started = System.nanoTime();
+            DatasetGenerator.Dataset dataset = new DatasetGenerator(context.getBean(JdbcTemplate.class), seed)
+                    .generate(users, itemsPerUser, bookingsPerItem, commentsPerItem);
+            context.getBean(ItemBookingSummaryService.class).rebuild();
+            System.out.printf("Набор данных %s заполнен за %d с%n", dataset, (System.nanoTime() - started) / 1_000_000_000);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadScenario scenario = new LoadScenario("http://localhost:" + port, dataset, itemsPerUser, bookingsPerItem);
+
+            drive(scenario, clients, warmupSeconds, seed);
+            Map<Operation, LatencyStats> stats = drive(scenario, clients, durationSeconds, seed + 1);
+
+            Map<String, Object> report = report(stats, durationSeconds, dataset, clients);
+            File reportFile = new File(args.getOrDefault("report", "target/load-report.json"));
+            objectMapper.writeValue(reportFile, report);
+            System.out.println("Отчёт: " + reportFile.getAbsolutePath());
+
+            String baseline = args.get("baseline");
+            return baseline == null ? 0 : compare(objectMapper.valueToTree(report), new File(baseline));
+        }
+    }
+
+    private Map<Operation, LatencyStats> drive(LoadScenario scenario, int clients, int seconds, long seed)
+            throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Map<Operation, LatencyStats>>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            for (int i = 0; i < clients; i++) {
+                Random random = new Random(seed * 31 + i);
+                results.add(executor.submit(() -> runClient(client, scenario, random, deadline)));
+            }
+
+            Map<Operation, LatencyStats> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, LatencyStats>> result : results) {
+                result.get().forEach((operation, stats) ->
+                        merged.computeIfAbsent(operation, key -> new LatencyStats()).merge(stats));
+            }
+            return merged;
+        }
+    }
+
+    private Map<Operation, LatencyStats> runClient(HttpClient client, LoadScenario scenario, Random random,
+                                                   long deadline) throws InterruptedException {
+        Operation[] operations = Operation.values();
+        int totalWeight = 0;
+        for (Operation operation : operations) {
+            totalWeight += operation.weight;
+        }
+
+        Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(operations, random.nextInt(totalWeight));
+            long started = System.nanoTime();
+            boolean error;
+            try {
+                HttpResponse<Void> response = client.send(operation.request(scenario, random),
+                        HttpResponse.BodyHandlers.discarding());
+                error = operation.isError(response.statusCode());
+            } catch (IOException e) {
+                error = true;
+            }
+            stats.computeIfAbsent(operation, key -> new LatencyStats())
+                    .record((System.nanoTime() - started) / 1000, error);
+        }
+        return stats;
+    }
+
+    private static Operation pick(Operation[] operations, int roll) {
+        for (Operation operation : operations) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private Map<String, Object> report(Map<Operation, LatencyStats> stats, int seconds,
+                                       DatasetGenerator.Dataset dataset, int clients) {
+        LatencyStats total = new LatencyStats();
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> {
+            endpoints.put(operation.name(), operationStats.report(seconds));
+            total.merge(operationStats);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("latencyUnit", LatencyStats.LATENCY_UNIT);
+        report.put("clients", clients);
+        report.put("durationSeconds", seconds);
+        report.put("dataset", dataset);
+        report.put("total", total.report(seconds));
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private int compare(JsonNode current, File baselineFile) throws IOException {
+        double tolerance = Double.parseDouble(args.getOrDefault("tolerance", "0.2"));
+        JsonNode baseline = objectMapper.readTree(baselineFile);
+        // Отчёты без latencyUnit писались в тех же миллисекундах
+        String baselineUnit = baseline.path("latencyUnit").asText(LatencyStats.LATENCY_UNIT);
+        if (!LatencyStats.LATENCY_UNIT.equals(baselineUnit)) {
+            System.out.println("Baseline " + baselineFile + " записан в " + baselineUnit
+                    + ", а текущий отчёт в " + LatencyStats.LATENCY_UNIT);
+            return 1;
+        }
+        List<String> regressions = new ArrayList<>();
+
+        baseline.path("endpoints").properties().forEach(entry -> {
+            JsonNode now = current.path("endpoints").path(entry.getKey());
+            if (now.isMissingNode()) {
+                return;
+            }
+            double baseP99 = entry.getValue().path("p99").asDouble();
+            double baseThroughput = entry.getValue().path("throughput").asDouble();
+            if (now.path("p99").asDouble() > baseP99 * (1 + tolerance)) {
+                regressions.add(entry.getKey() + ": p99 " + baseP99 + " -> " + now.path("p99").asDouble() + " мс");
+            }
+            if (now.path("throughput").asDouble() < baseThroughput * (1 - tolerance)) {
+                regressions.add(entry.getKey() + ": throughput " + baseThroughput + " -> "
+                        + now.path("throughput").asDouble() + " rps");
+            }
+        });
+
+        regressions.forEach(regression -> System.out.println("Регрессия " + regression));
+        return regressions.isEmpty() ? 0 : 1;
+    }
+
+    private int intArg(String name, int defaultValue) {
+        String value = args.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
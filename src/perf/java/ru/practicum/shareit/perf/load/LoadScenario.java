@@ -0,0 +1,102 @@
+package ru.practicum.shareit.perf.load;
+
+import ru.practicum.shareit.perf.DatasetGenerator;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Параметры набора данных, из которых операции нагрузки строят запросы.
+ * Владельцы вычисляются так же, как их назначает DatasetGenerator:
+ * вещи 1..itemsPerUser принадлежат пользователю 1 и т.д.
+ */
+class LoadScenario {
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final long users;
+    private final long items;
+    private final long bookings;
+    private final int itemsPerUser;
+    private final int bookingsPerItem;
+    private final LocalDateTime anchor = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+    private final AtomicLong unique = new AtomicLong();
+
+    LoadScenario(String baseUrl, DatasetGenerator.Dataset dataset, int itemsPerUser, int bookingsPerItem) {
+        this.baseUrl = baseUrl;
+        this.users = dataset.users();
+        this.items = dataset.items();
+        this.bookings = dataset.bookings();
+        this.itemsPerUser = itemsPerUser;
+        this.bookingsPerItem = bookingsPerItem;
+    }
+
+    long users() {
+        return users;
+    }
+
+    long randomUser(Random random) {
+        return 1 + (long) (random.nextDouble() * users);
+    }
+
+    long randomItem(Random random) {
+        return 1 + (long) (random.nextDouble() * items);
+    }
+
+    long randomBooking(Random random) {
+        return 1 + (long) (random.nextDouble() * bookings);
+    }
+
+    long ownerOfItem(long itemId) {
+        return (itemId - 1) / itemsPerUser + 1;
+    }
+
+    long ownerOfBooking(long bookingId) {
+        return ownerOfItem((bookingId - 1) / bookingsPerItem + 1);
+    }
+
+    String randomState(Random random) {
+        return STATES[random.nextInt(STATES.length)];
+    }
+
+    List<String> searchWords() {
+        return DatasetGenerator.WORDS;
+    }
+
+    /**
+     * Начало нового бронирования далеко за пределами сгенерированных дат, чтобы пересечения были редкими.
+     */
+    LocalDateTime futureStart(Random random) {
+        return anchor.plusYears(1).plusHours(random.nextInt(24 * 365 * 5));
+    }
+
+    long nextUnique() {
+        return unique.incrementAndGet();
+    }
+
+    HttpRequest get(String path, Long userId) {
+        return builder(path, userId).GET().build();
+    }
+
+    HttpRequest send(String method, String path, Long userId, String body) {
+        return builder(path, userId)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (userId != null) {
+            builder.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.perf.load;
+
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Операции смешанной нагрузки и их веса. Пользователи, вещи и бронирования выбираются
+ * из набора DatasetGenerator, владельцы вычисляются из порядка генерации.
+ */
+enum Operation {
+    GET_USER(15) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            return scenario.get("/users/" + scenario.randomUser(random), null);
+        }
+    },
+    UPDATE_USER(2) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            long userId = scenario.randomUser(random);
+            return scenario.send("PATCH", "/users/" + userId, null, "{\"name\":\"user" + userId + "-" + random.nextInt(1000) + "\"}");
+        }
+    },
+    CREATE_USER(3) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            return scenario.send("POST", "/users", null,
+                    "{\"name\":\"load\",\"email\":\"load-" + scenario.nextUnique() + "@shareit.test\"}");
+        }
+    },
+    GET_ITEM(20) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            return scenario.get("/items/" + scenario.randomItem(random), scenario.randomUser(random));
+        }
+    },
+    GET_OWNER_ITEMS(10) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            return scenario.get("/items", scenario.randomUser(random));
+        }
+    },
+    SEARCH_ITEMS(10) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            List<String> words = scenario.searchWords();
+            return scenario.get("/items/search?text=" + words.get(random.nextInt(words.size())) + "&size=20",
+                    scenario.randomUser(random));
+        }
+    },
+    GET_BOOKING(8) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            long bookingId = scenario.randomBooking(random);
+            return scenario.get("/bookings/" + bookingId, scenario.ownerOfBooking(bookingId));
+        }
+    },
+    GET_USER_BOOKINGS(10) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            return scenario.get("/bookings?state=" + scenario.randomState(random), scenario.randomUser(random));
+        }
+    },
+    GET_OWNER_BOOKINGS(10) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            return scenario.get("/bookings/owner?state=" + scenario.randomState(random), scenario.randomUser(random));
+        }
+    },
+    CREATE_BOOKING(5) {
+        @Override
+        HttpRequest request(LoadScenario scenario, Random random) {
+            long itemId = scenario.randomItem(random);
+            long bookerId = scenario.randomUser(random);
+            if (bookerId == scenario.ownerOfItem(itemId)) {
+                bookerId = bookerId % scenario.users() + 1;
+            }
+            LocalDateTime start = scenario.futureStart(random);
+            LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+            return scenario.send("POST", "/bookings", bookerId,
+                    "{\"itemId\":" + itemId + ",\"start\":\"" + start + "\",\"end\":\"" + end + "\"}");
+        }
+
+        @Override
+        boolean isError(int status) {
+            // Пересечение с существующим бронированием - ожидаемый ответ 400
+            return status >= 500;
+        }
+    };
+
+    final int weight;
+
+    Operation(int weight) {
+        this.weight = weight;
+    }
+
+    abstract HttpRequest request(LoadScenario scenario, Random random);
+
+    boolean isError(int status) {
+        return status >= 400;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+    private static final int ATTEMPTS = 200;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void concurrentOverlappingBookingsLetExactlyOneWin() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                // Все интервалы пересекаются с [start + 1ч, start + 2ч)
+                LocalDateTime attemptStart = start.plusMinutes(i % 60);
+                BookingDto bookingDto = BookingDto.builder()
+                        .itemId(item.getId())
+                        .start(attemptStart)
+                        .end(attemptStart.plusHours(2))
+                        .build();
+                results.add(executor.submit(() -> {
+                    startGate.await();
+                    try {
+                        bookingService.create(booker.getId(), bookingDto);
+                        return true;
+                    } catch (ValidationException e) {
+                        // Любое другое исключение всплывёт из Future.get и провалит тест
+                        return false;
+                    }
+                }));
+            }
+            startGate.countDown();
+
+            long successes = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(1, TimeUnit.MINUTES)) {
+                    successes++;
+                }
+            }
+            assertEquals(1, successes);
+        }
+
+        List<Booking> bookings = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .toList();
+        assertEquals(1, bookings.size());
+    }
+}
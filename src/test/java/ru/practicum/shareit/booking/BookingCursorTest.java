@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingCursorTest {
+
+    @Test
+    void encodedCursorDecodesToSamePosition() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_000_000), 42L);
+
+        BookingCursor decoded = BookingCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getStart(), decoded.getStart());
+        assertEquals(cursor.getId(), decoded.getId());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(ValidationException.class, () -> BookingCursor.decode("not a cursor"));
+        assertThrows(ValidationException.class, () -> BookingCursor.decode(""));
+        assertThrows(ValidationException.class,
+                () -> BookingCursor.decode(new BookingCursor(LocalDateTime.now(), 1L).encode().substring(3)));
+    }
+}
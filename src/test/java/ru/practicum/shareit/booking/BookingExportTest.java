@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Экспорт миллиона бронирований одного владельца. База файловая, чтобы данные не занимали кучу теста.
+ * Выполняется отдельным запуском surefire (export-test) с -Xmx128m: если экспорт начнёт
+ * собирать бронирования в памяти, тест упадёт по OutOfMemoryError.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/booking-export;MODE=PostgreSQL;CACHE_SIZE=8192",
+        "spring.jpa.show-sql=false",
+        "shareit.requests.notification.enabled=false"})
+@ActiveProfiles("test")
+class BookingExportTest {
+    private static final int ITEMS = 1000;
+    private static final int BOOKINGS_PER_ITEM = 1000;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportsMillionBookingsWithoutLoadingThemIntoMemory() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@mail.ru')");
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (2, 'booker', 'booker@mail.ru')");
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, TRUE, 1)",
+                itemRows());
+        insertBookings();
+
+        BookingLineChecker out = new BookingLineChecker();
+        bookingService.exportOwnerBookings(1L, out);
+
+        assertEquals(ITEMS * BOOKINGS_PER_ITEM, out.lines);
+        assertEquals(ITEMS * BOOKINGS_PER_ITEM, out.ids.cardinality());
+    }
+
+    private List<Object[]> itemRows() {
+        List<Object[]> rows = new ArrayList<>(ITEMS);
+        for (long id = 1; id <= ITEMS; id++) {
+            rows.add(new Object[]{id, "Дрель " + id, "Простая дрель"});
+        }
+        return rows;
+    }
+
+    private void insertBookings() {
+        LocalDateTime base = LocalDateTime.now().minusYears(1);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = base.plusHours(i * 3L);
+                batch.add(new Object[]{++id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)), itemId});
+                if (batch.size() == BATCH_SIZE) {
+                    flush(batch);
+                }
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, owner_id) "
+                + "SELECT ?, ?, ?, id, 2, 'APPROVED', owner_id FROM items WHERE id = ?", batch);
+        batch.clear();
+    }
+
+    /**
+     * Разбирает каждую строку NDJSON сразу по мере записи и запоминает только id.
+     */
+    private class BookingLineChecker extends OutputStream {
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private final BitSet ids = new BitSet(ITEMS * BOOKINGS_PER_ITEM + 1);
+        private long lines;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '\n') {
+                check(objectMapper.readTree(line.toByteArray()));
+                line.reset();
+                lines++;
+            } else {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        private void check(JsonNode booking) {
+            int id = booking.path("id").asInt();
+            assertTrue(id >= 1 && id <= ITEMS * BOOKINGS_PER_ITEM, "id " + id);
+            assertFalse(ids.get(id), "повтор id " + id);
+            ids.set(id);
+            long itemId = booking.path("item").path("id").asLong();
+            assertTrue(itemId >= 1 && itemId <= ITEMS, "item " + itemId);
+            assertEquals(2, booking.path("booker").path("id").asLong());
+            assertEquals("APPROVED", booking.path("status").asText());
+        }
+    }
+}
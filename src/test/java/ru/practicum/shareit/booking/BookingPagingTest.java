@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Списки бронирований без size отдаются целиком, from задаёт точное смещение,
+ * а проход по курсору возвращает те же строки, что и один большой запрос.
+ */
+@SpringBootTest(properties = "shareit.requests.notification.enabled=false")
+@ActiveProfiles("test")
+class BookingPagingTest {
+    private static final int BOOKINGS = 15;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().minusDays(BOOKINGS + 1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+    }
+
+    @Test
+    void listsAreUnpagedWithoutSize() {
+        assertEquals(BOOKINGS, bookingService.getUserBookings(booker.getId(), "ALL", 0, null, null).size());
+        assertEquals(BOOKINGS, bookingService.getOwnerBookings(owner.getId(), "ALL", 0, null, null).size());
+    }
+
+    @Test
+    void fromIsAnExactOffset() {
+        List<BookingResponseDto> all = bookingService.getUserBookings(booker.getId(), "ALL", 0, null, null);
+
+        List<BookingResponseDto> page = bookingService.getUserBookings(booker.getId(), "ALL", 5, 10, null);
+
+        assertEquals(ids(all.subList(5, 15)), ids(page));
+        assertEquals(ids(all.subList(5, 15)),
+                ids(bookingService.getOwnerBookings(owner.getId(), "ALL", 5, 10, null)));
+    }
+
+    private static List<Long> ids(List<BookingResponseDto> bookings) {
+        return bookings.stream().map(BookingResponseDto::getId).toList();
+    }
+
+    @Test
+    void cursorPagesCoverWholeList() {
+        List<BookingResponseDto> all = bookingService.getOwnerBookings(owner.getId(), "ALL", null, null, null);
+
+        List<BookingResponseDto> userPages = new ArrayList<>();
+        List<BookingResponseDto> ownerPages = new ArrayList<>();
+        String userCursor = null;
+        String ownerCursor = null;
+        for (int i = 0; i < 4; i++) {
+            List<BookingResponseDto> userPage = bookingService.getUserBookings(booker.getId(), "ALL", null, 4, userCursor);
+            List<BookingResponseDto> ownerPage = bookingService.getOwnerBookings(owner.getId(), "ALL", null, 4, ownerCursor);
+            userPages.addAll(userPage);
+            ownerPages.addAll(ownerPage);
+            userCursor = BookingCursor.after(userPage.get(userPage.size() - 1)).encode();
+            ownerCursor = BookingCursor.after(ownerPage.get(ownerPage.size() - 1)).encode();
+        }
+
+        assertEquals(ids(all), ids(userPages));
+        assertEquals(ids(all), ids(ownerPages));
+        assertEquals(List.of(), bookingService.getUserBookings(booker.getId(), "ALL", null, 4, userCursor));
+    }
+
+    @Test
+    void fromWithCursorIsRejected() {
+        String cursor = BookingCursor.FIRST.encode();
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(booker.getId(), "ALL", 0, 4, cursor));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getOwnerBookings(owner.getId(), "ALL", 0, 4, cursor));
+    }
+
+    @Test
+    void ownerCursorQueryUsesOwnerIndex() {
+        String cursorStart = "TIMESTAMP '" + LocalDateTime.now().toString().replace('T', ' ') + "'";
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM bookings WHERE owner_id = " + owner.getId()
+                + " AND start_date <= " + cursorStart
+                + " AND (start_date < " + cursorStart + " OR (start_date = " + cursorStart + " AND id < 100))"
+                + " ORDER BY start_date DESC, id DESC LIMIT 4", String.class);
+
+        assertTrue(plan.toUpperCase().contains("IDX_BOOKINGS_OWNER_START_ID"), plan);
+    }
+}
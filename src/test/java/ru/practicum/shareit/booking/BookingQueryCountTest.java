@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.StatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Число SQL-запросов списков бронирований не должно зависеть от размера страницы:
+ * проверка пользователя, выборка бронирований вместе с вещами и бронирующими
+ * и одна пакетная загрузка отзывов. Запросы считаются StatementCounter в потоке теста,
+ * поэтому фоновые задачи приложения на результат не влияют.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingQueryCountTest {
+    private static final int ITEMS = 5;
+    private static final int BOOKINGS = 20;
+    private static final int EXPECTED_STATEMENTS = 3;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .owner(owner.getId())
+                    .build());
+            commentRepository.save(Comment.builder()
+                    .text("comment " + i)
+                    .item(item)
+                    .author(booker)
+                    .created(LocalDateTime.now())
+                    .build());
+            items.add(item);
+        }
+
+        LocalDateTime start = LocalDateTime.now().minusDays(BOOKINGS + 1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .item(items.get(i % ITEMS))
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+
+        StatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        StatementCounter.clear();
+    }
+
+    @Test
+    void getUserBookingsRunsConstantNumberOfStatements() {
+        List<BookingResponseDto> bookings = bookingService.getUserBookings(booker.getId(), "ALL", 0, BOOKINGS, null);
+
+        assertEquals(BOOKINGS, bookings.size());
+        assertEquals(EXPECTED_STATEMENTS, StatementCounter.current());
+    }
+
+    @Test
+    void getOwnerBookingsRunsConstantNumberOfStatements() {
+        List<BookingResponseDto> bookings = bookingService.getOwnerBookings(owner.getId(), "ALL", 0, BOOKINGS, null);
+
+        assertEquals(BOOKINGS, bookings.size());
+        assertEquals(EXPECTED_STATEMENTS, StatementCounter.current());
+    }
+}
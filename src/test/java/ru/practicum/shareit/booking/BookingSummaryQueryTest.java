@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.StatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Последнее и следующее бронирование вещей владельца считаются одним сгруппированным
+ * запросом: строк возвращается столько, сколько вещей, а не бронирований.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingSummaryQueryTest {
+    private static final int ITEMS = 4;
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> itemIds = new ArrayList<>();
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .owner(owner.getId())
+                    .build());
+            itemIds.add(item.getId());
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                // Половина бронирований в прошлом, половина в будущем; отклонённые не учитываются
+                LocalDateTime start = now.plusDays(j - BOOKINGS_PER_ITEM / 2L);
+                bookingRepository.save(Booking.builder()
+                        .start(start)
+                        .end(start.plusHours(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(j == 0 ? BookingStatus.REJECTED : BookingStatus.APPROVED)
+                        .build());
+            }
+        }
+        StatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        StatementCounter.clear();
+    }
+
+    @Test
+    void summarizeApprovedReturnsOneRowPerItemInOneStatement() {
+        DistributionSummary before = rowsSummary();
+        long callsBefore = before != null ? before.count() : 0;
+        double rowsBefore = before != null ? before.totalAmount() : 0;
+
+        Map<Long, ItemBookingSummary> summaries = bookingRepository.summarizeApproved(itemIds, now).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        DistributionSummary rows = rowsSummary();
+        assertEquals(1, StatementCounter.current());
+        assertEquals(1, rows.count() - callsBefore);
+        assertEquals(ITEMS, rows.totalAmount() - rowsBefore);
+
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.get(itemId);
+            assertEquals(now.minusDays(1).plusHours(1), summary.getLastEnd());
+            assertEquals(now.plusDays(1), summary.getNextStart());
+            assertEquals(BOOKINGS_PER_ITEM - 1, summary.getApprovedCount());
+        }
+    }
+
+    private DistributionSummary rowsSummary() {
+        return meterRegistry.find("shareit.repository.rows")
+                .tag("repository", "BookingRepository")
+                .tag("method", "summarizeApproved")
+                .summary();
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemBookingSummaryServiceTest {
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void refreshStoresLastAndNextApprovedBooking() {
+        Item item = itemWithBookings();
+        Item notBooked = item();
+
+        summaryService.refresh(List.of(item.getId(), notBooked.getId()));
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(now.minusDays(2).plusHours(1), summary.getLastEnd());
+        assertEquals(now.plusDays(2), summary.getNextStart());
+        assertEquals(now.plusDays(2), summary.getRefreshAt());
+        assertEquals(2, summary.getApprovedCount());
+        assertFalse(summaryRepository.existsById(notBooked.getId()));
+    }
+
+    @Test
+    void getSummariesRecomputesStaleRows() {
+        Item item = itemWithBookings();
+        summaryRepository.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .lastEnd(now.minusYears(1))
+                .nextStart(now.minusDays(1))
+                .refreshAt(now.minusDays(1))
+                .approvedCount(1L)
+                .build());
+
+        ItemBookingSummary summary = summaryService.getSummaries(List.of(item.getId())).get(item.getId());
+
+        assertEquals(now.minusDays(2).plusHours(1), summary.getLastEnd());
+        assertEquals(now.plusDays(2), summary.getNextStart());
+    }
+
+    @Test
+    void sweepRefreshesRowsWhoseRefreshAtHasPassed() {
+        Item item = itemWithBookings();
+        summaryRepository.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .nextStart(now.minusDays(1))
+                .refreshAt(now.minusDays(1))
+                .approvedCount(1L)
+                .build());
+
+        summaryService.sweep();
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(now.plusDays(2), summary.getNextStart());
+        assertTrue(summary.getRefreshAt().isAfter(now));
+    }
+
+    @Test
+    void rebuildRestoresDeletedSummaries() {
+        Item item = itemWithBookings();
+        summaryRepository.deleteById(item.getId());
+
+        long itemCount = summaryService.rebuild();
+
+        assertTrue(itemCount >= 1);
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(now.plusDays(2), summary.getNextStart());
+        assertEquals(2, summary.getApprovedCount());
+    }
+
+    @Test
+    void concurrentApprovalsOfOneItemAreBothCounted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                Item item = item();
+                Booking first = booking(item, now.plusDays(1), BookingStatus.WAITING);
+                Booking second = booking(item, now.plusDays(3), BookingStatus.WAITING);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                List<Future<?>> approvals = new ArrayList<>();
+                for (Booking booking : List.of(first, second)) {
+                    approvals.add(executor.submit(() -> {
+                        barrier.await();
+                        return bookingService.approve(owner.getId(), booking.getId(), true);
+                    }));
+                }
+                for (Future<?> approval : approvals) {
+                    approval.get();
+                }
+
+                ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+                assertEquals(2, summary.getApprovedCount(), "Раунд " + round);
+                assertEquals(now.plusDays(1), summary.getNextStart(), "Раунд " + round);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Item itemWithBookings() {
+        Item item = item();
+        booking(item, now.minusDays(2), BookingStatus.APPROVED);
+        booking(item, now.plusDays(2), BookingStatus.APPROVED);
+        booking(item, now.plusDays(1), BookingStatus.WAITING);
+        return item;
+    }
+
+    private Item item() {
+        return itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+    }
+
+    private Booking booking(Item item, LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Экспорт отвечает 404 для неизвестного пользователя до того, как начнётся поток NDJSON.
+ */
+@SpringBootTest(properties = "shareit.requests.notification.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OwnerExportStatusTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void unknownOwnerGetsNotFound() throws Exception {
+        for (String path : new String[]{"/bookings/owner/export", "/items/export"}) {
+            mockMvc.perform(get(path).header("X-Sharer-User-Id", Long.MAX_VALUE))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Test
+    void knownOwnerGetsNdjsonStream() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+
+        for (String path : new String[]{"/bookings/owner/export", "/items/export"}) {
+            MvcResult result = mockMvc.perform(get(path).header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(""));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.cache.CacheInvalidation;
+import ru.practicum.shareit.cache.LocalCacheInvalidationBroadcaster;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.StatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "shareit.booking.availability-index.enabled=true",
+        "shareit.requests.notification.enabled=false"})
+@ActiveProfiles("test")
+class ItemAvailabilityIndexTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+        start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        StatementCounter.clear();
+    }
+
+    @Test
+    void busyPeriodIsRejectedWithoutOverlapQuery() {
+        bookingService.create(booker.getId(), booking(start, start.plusHours(2)));
+        double overlapQueries = overlapQueries();
+
+        StatementCounter.reset();
+        assertThrows(ValidationException.class,
+                () -> bookingService.create(booker.getId(), booking(start.plusHours(1), start.plusHours(3))));
+
+        assertEquals(overlapQueries, overlapQueries());
+        // Только поиск арендатора и блокировка строки вещи
+        assertTrue(StatementCounter.current() <= 2, "Запросов: " + StatementCounter.current());
+    }
+
+    @Test
+    void falsePassIsCaughtByDatabaseAndReloadsCalendar() {
+        bookingService.create(booker.getId(), booking(start.plusDays(5), start.plusDays(5).plusHours(1)));
+        // Бронирование мимо индекса, как если бы его создал другой узел
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusHours(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+        double falsePasses = falsePasses();
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.create(booker.getId(), booking(start, start.plusHours(1))));
+        assertEquals(falsePasses + 1, falsePasses());
+
+        double overlapQueries = overlapQueries();
+        assertThrows(ValidationException.class,
+                () -> bookingService.create(booker.getId(), booking(start, start.plusHours(1))));
+        assertEquals(overlapQueries, overlapQueries());
+    }
+
+    @Test
+    void remoteChangeDropsCalendar() {
+        Long bookingId = bookingService.create(booker.getId(), booking(start, start.plusHours(2))).getId();
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        booking.setStatus(BookingStatus.CANCELED);
+        bookingRepository.save(booking);
+
+        LocalCacheInvalidationBroadcaster otherNode = new LocalCacheInvalidationBroadcaster();
+        otherNode.publish(new CacheInvalidation(CacheInvalidation.Type.AVAILABILITY,
+                ItemCalendar.class.getName(), item.getId()));
+
+        bookingService.create(booker.getId(), booking(start, start.plusHours(2)));
+    }
+
+    private BookingDto booking(LocalDateTime from, LocalDateTime to) {
+        return BookingDto.builder().itemId(item.getId()).start(from).end(to).build();
+    }
+
+    private double overlapQueries() {
+        return meterRegistry.find("shareit.repository.query")
+                .tags("repository", "BookingRepository", "method", "existsOverlappingBookings")
+                .timers().stream()
+                .mapToDouble(Timer::count)
+                .sum();
+    }
+
+    private double falsePasses() {
+        return meterRegistry.find("shareit.booking.availability.checks")
+                .tag("result", "false_pass")
+                .counter().count();
+    }
+}
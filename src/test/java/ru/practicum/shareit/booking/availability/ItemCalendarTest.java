@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCalendarTest {
+
+    @Test
+    void intervalsAreHalfOpen() {
+        ItemCalendar calendar = new ItemCalendar();
+        calendar.add(10, 20);
+
+        assertTrue(calendar.overlaps(15, 16));
+        assertTrue(calendar.overlaps(5, 11));
+        assertTrue(calendar.overlaps(19, 30));
+        assertTrue(calendar.overlaps(0, 100));
+        assertFalse(calendar.overlaps(0, 10));
+        assertFalse(calendar.overlaps(20, 30));
+    }
+
+    @Test
+    void findsOverlapAmongManyIntervalsAddedOutOfOrder() {
+        ItemCalendar calendar = new ItemCalendar();
+        for (int i = 9; i >= 0; i--) {
+            calendar.add(i * 100L, i * 100L + 50);
+        }
+
+        assertEquals(10, calendar.size());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(calendar.overlaps(i * 100L + 49, i * 100L + 60));
+            assertFalse(calendar.overlaps(i * 100L + 50, i * 100L + 100));
+        }
+    }
+
+    @Test
+    void addIgnoresDuplicatesAndRemoveDropsExactInterval() {
+        ItemCalendar calendar = new ItemCalendar();
+        calendar.add(10, 20);
+        calendar.add(10, 20);
+        calendar.add(30, 40);
+        assertEquals(2, calendar.size());
+
+        calendar.remove(10, 25);
+        assertEquals(2, calendar.size());
+
+        calendar.remove(10, 20);
+        assertEquals(1, calendar.size());
+        assertFalse(calendar.overlaps(10, 20));
+        assertTrue(calendar.overlaps(35, 36));
+    }
+
+    @Test
+    void pruneDropsOnlyEndedIntervals() {
+        ItemCalendar calendar = new ItemCalendar();
+        calendar.add(10, 20);
+        calendar.add(20, 30);
+        calendar.add(40, 50);
+
+        calendar.pruneEndedBy(30);
+
+        assertEquals(1, calendar.size());
+        assertFalse(calendar.overlaps(0, 40));
+        assertTrue(calendar.overlaps(45, 46));
+
+        calendar.pruneEndedBy(100);
+        assertEquals(0, calendar.size());
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Два контекста над одной базой изображают два узла: LocalCacheInvalidationBroadcaster
+ * общий для JVM, а у второго узла свой префикс регионов, чтобы кэши второго уровня
+ * не совпали, даже если провайдер JCache отдаст обоим один менеджер кэшей.
+ */
+class SecondLevelCacheInvalidationTest {
+    private static final String URL = "jdbc:h2:mem:l2-nodes;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = start("spring.sql.init.mode=always");
+        nodeB = start("spring.sql.init.mode=never",
+                "spring.jpa.properties.hibernate.cache.region_prefix=node-b",
+                "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void ownerDeleteEvictsItemsOnBothNodes() {
+        long ownerId = createUser(nodeA);
+        long itemId = createItem(nodeA, ownerId);
+        items(nodeA).getById(itemId);
+        items(nodeB).getById(itemId);
+        assertTrue(isCached(nodeA, itemId));
+        assertTrue(isCached(nodeB, itemId));
+
+        // Вещь удаляет ON DELETE CASCADE, Hibernate о ней не знает
+        users(nodeB).delete(ownerId);
+
+        assertFalse(isCached(nodeB, itemId));
+        assertFalse(isCached(nodeA, itemId));
+        assertThrows(NotFoundException.class, () -> items(nodeB).getById(itemId));
+        assertThrows(NotFoundException.class, () -> items(nodeA).getById(itemId));
+    }
+
+    @Test
+    void itemUpdateOnOneNodeIsVisibleOnTheOther() {
+        long ownerId = createUser(nodeA);
+        long itemId = createItem(nodeA, ownerId);
+        assertEquals("Дрель", items(nodeA).getById(itemId).getName());
+
+        items(nodeB).update(itemId, ItemDto.builder().name("Перфоратор").build(), ownerId);
+
+        assertEquals("Перфоратор", items(nodeA).getById(itemId).getName());
+    }
+
+    private static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=" + URL,
+                        "spring.jpa.show-sql=false",
+                        "shareit.requests.notification.enabled=false")
+                .properties(properties)
+                .run();
+    }
+
+    private static long createUser(ConfigurableApplicationContext node) {
+        return users(node).create(UserDto.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@mail.ru")
+                .build()).getId();
+    }
+
+    private static long createItem(ConfigurableApplicationContext node, long ownerId) {
+        return items(node).create(ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build(), ownerId).getId();
+    }
+
+    private static boolean isCached(ConfigurableApplicationContext node, long itemId) {
+        return node.getBean(EntityManagerFactory.class).getCache().contains(Item.class, itemId);
+    }
+
+    private static ItemService items(ConfigurableApplicationContext node) {
+        return node.getBean(ItemService.class);
+    }
+
+    private static UserService users(ConfigurableApplicationContext node) {
+        return node.getBean(UserService.class);
+    }
+}
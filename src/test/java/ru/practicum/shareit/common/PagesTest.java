@@ -0,0 +1,33 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PagesTest {
+
+    @Test
+    void offsetIsNotRoundedToPageBoundary() {
+        Pageable pageable = Pages.of(5, 10);
+
+        assertEquals(5, pageable.getOffset());
+        assertEquals(10, pageable.getPageSize());
+        assertEquals(15, pageable.next().getOffset());
+    }
+
+    @Test
+    void missingSizeMeansUnpaged() {
+        assertFalse(Pages.of(0, null).isPaged());
+        assertEquals(3, Pages.of(3, null).getOffset());
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        assertThrows(ValidationException.class, () -> Pages.of(-1, 10));
+        assertThrows(ValidationException.class, () -> Pages.of(0, 0));
+    }
+}
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Маршрутизация на двух экземплярах H2: реплика не реплицируется, а заполняется тестом,
+ * поэтому по имени пользователя видно, из какой базы пришло чтение.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "shareit.datasource.routing.enabled=true",
+        "shareit.datasource.routing.lag-check-interval=3600000",
+        "shareit.datasource.routing.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.datasource.routing.replicas[0].username=sa",
+        "shareit.datasource.routing.replicas[0].lag-query=SELECT seconds FROM replication_lag",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "shareit.requests.notification.enabled=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ReadYourWrites readYourWrites;
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:schema.sql'");
+            statement.execute("RUNSCRIPT FROM 'classpath:schema-h2.sql'");
+            statement.execute("CREATE TABLE replication_lag (seconds DOUBLE PRECISION)");
+            statement.execute("INSERT INTO replication_lag VALUES (0)");
+        }
+    }
+
+    @AfterEach
+    void resetLag() throws SQLException {
+        setReplicaLag(0);
+        lagMonitor.check();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() throws SQLException {
+        UserDto user = createUser();
+
+        assertEquals("replica", userService.getById(user.getId()).getName());
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimary() throws SQLException {
+        UserDto user = createUser();
+
+        readYourWrites.begin(user.getId());
+        try {
+            userService.update(user.getId(), UserDto.builder().name("updated").build());
+            assertEquals("updated", userService.getById(user.getId()).getName());
+        } finally {
+            readYourWrites.end();
+        }
+
+        readYourWrites.begin(user.getId());
+        try {
+            assertEquals("updated", userService.getById(user.getId()).getName());
+        } finally {
+            readYourWrites.end();
+        }
+
+        readYourWrites.begin(null);
+        try {
+            assertEquals("replica", userService.getById(user.getId()).getName());
+        } finally {
+            readYourWrites.end();
+        }
+    }
+
+    @Test
+    void streamedExportKeepsReadYourWrites() throws Exception {
+        UserDto user = createUser();
+
+        mockMvc.perform(patch("/users/{userId}", user.getId())
+                        .header("X-Sharer-User-Id", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"updated\"}"))
+                .andExpect(status().isOk());
+
+        // Выгрузка читает в потоке асинхронной обработки, а не в потоке запроса
+        assertTrue(export(user.getId()).contains("{\"id\":" + user.getId() + ",\"name\":\"updated\""));
+        assertTrue(export(null).contains("{\"id\":" + user.getId() + ",\"name\":\"replica\""));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws SQLException {
+        UserDto user = createUser();
+
+        setReplicaLag(60);
+        lagMonitor.check();
+
+        assertEquals("primary", userService.getById(user.getId()).getName());
+    }
+
+    private String export(Long userId) throws Exception {
+        MvcResult result = mockMvc.perform(userId == null
+                        ? get("/users/export")
+                        : get("/users/export").header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Пользователь с именем primary на основной базе и его копия с именем replica на реплике.
+     */
+    private UserDto createUser() throws SQLException {
+        UserDto user = userService.create(UserDto.builder()
+                .name("primary")
+                .email(UUID.randomUUID() + "@routing.ru")
+                .build());
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO users (id, name, email) VALUES (?, 'replica', ?)")) {
+            statement.setLong(1, user.getId());
+            statement.setString(2, user.getEmail());
+            statement.executeUpdate();
+        }
+        return user;
+    }
+
+    private static void setReplicaLag(double seconds) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             PreparedStatement statement = connection.prepareStatement("UPDATE replication_lag SET seconds = ?")) {
+            statement.setDouble(1, seconds);
+            statement.executeUpdate();
+        }
+    }
+}
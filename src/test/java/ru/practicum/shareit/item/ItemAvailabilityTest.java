@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Свободные интервалы получаются слиянием отсортированных активных бронирований за один проход.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemAvailabilityTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @BeforeEach
+    void setUp() {
+        owner = user("owner");
+        booker = user("booker");
+        from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        to = from.plusDays(10);
+    }
+
+    @Test
+    void wholeRangeIsFreeWithoutBookings() {
+        Item item = item();
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), from, to);
+
+        assertEquals(List.of(new TimeSlotDto(from, to)), availability.getFree());
+    }
+
+    @Test
+    void mergesOverlappingAndAdjacentBookingsAndClipsToRange() {
+        Item item = item();
+        // Начинается до периода
+        booking(item, from.minusDays(1), from.plusDays(1), BookingStatus.APPROVED);
+        // Пересекающиеся и вложенные бронирования сливаются в одно занятое время
+        booking(item, from.plusDays(3), from.plusDays(5), BookingStatus.WAITING);
+        booking(item, from.plusDays(4), from.plusDays(6), BookingStatus.APPROVED);
+        booking(item, from.plusDays(4).plusHours(1), from.plusDays(4).plusHours(2), BookingStatus.APPROVED);
+        // Вплотную к предыдущему: пустой интервал между ними не появляется
+        booking(item, from.plusDays(6), from.plusDays(7), BookingStatus.APPROVED);
+        // Отклонённые и отменённые бронирования время не занимают
+        booking(item, from.plusDays(7), from.plusDays(8), BookingStatus.REJECTED);
+        booking(item, from.plusDays(8), from.plusDays(9), BookingStatus.CANCELED);
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), from, to);
+
+        assertEquals(List.of(
+                new TimeSlotDto(from.plusDays(1), from.plusDays(3)),
+                new TimeSlotDto(from.plusDays(7), to)), availability.getFree());
+    }
+
+    @Test
+    void bookingCoveringWholeRangeLeavesNoFreeTime() {
+        Item item = item();
+        booking(item, from.minusDays(1), to.plusDays(1), BookingStatus.APPROVED);
+
+        assertTrue(itemService.getAvailability(item.getId(), from, to).getFree().isEmpty());
+    }
+
+    @Test
+    void batchKeepsItemsApartAndPreservesRequestOrder() {
+        Item first = item();
+        Item second = item();
+        booking(first, from.plusDays(2), from.plusDays(3), BookingStatus.APPROVED);
+        booking(second, from, from.plusDays(9), BookingStatus.APPROVED);
+
+        List<ItemAvailabilityDto> availability = itemService.getBatchAvailability(
+                List.of(second.getId(), first.getId(), second.getId()), from, to);
+
+        assertEquals(2, availability.size());
+        assertEquals(second.getId(), availability.get(0).getItemId());
+        assertEquals(List.of(new TimeSlotDto(from.plusDays(9), to)), availability.get(0).getFree());
+        assertEquals(first.getId(), availability.get(1).getItemId());
+        assertEquals(List.of(
+                new TimeSlotDto(from, from.plusDays(2)),
+                new TimeSlotDto(from.plusDays(3), to)), availability.get(1).getFree());
+    }
+
+    @Test
+    void rejectsInvalidRangeAndUnknownItem() {
+        Long itemId = item().getId();
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(itemId, to, from));
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(itemId, from, from.plusDays(367)));
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(Long.MAX_VALUE, from, to));
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+    }
+
+    private Item item() {
+        return itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+    }
+
+    private void booking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
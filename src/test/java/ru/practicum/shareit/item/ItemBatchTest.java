@@ -0,0 +1,153 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.StatementCounter;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пакетные POST /items/batch и PATCH /items/batch: проверки выполняются для всей пачки
+ * до записи, а вставки уходят JDBC-пакетами с id из последовательности блоками по 50.
+ */
+@SpringBootTest(properties = "shareit.requests.notification.enabled=false")
+@ActiveProfiles("test")
+class ItemBatchTest {
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = user();
+    }
+
+    @AfterEach
+    void tearDown() {
+        StatementCounter.clear();
+    }
+
+    @Test
+    void createBatchAssignsSequenceIdsWithBatchedInserts() {
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(item("Дрель " + i, null));
+        }
+
+        StatementCounter.reset();
+        List<ItemDto> created = itemService.createBatch(items, owner.getId());
+        int statements = StatementCounter.current();
+
+        assertEquals(100, created.size());
+        assertEquals(100, created.stream().map(ItemDto::getId).collect(Collectors.toSet()).size());
+        assertEquals("Дрель 0", created.get(0).getName());
+        assertEquals("Дрель 99", created.get(99).getName());
+        // Без пакетов было бы по INSERT и nextval на каждую вещь
+        assertTrue(statements <= 10, "SQL-запросов: " + statements);
+    }
+
+    @Test
+    void createBatchLinksItemsToExistingRequests() {
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("Нужна дрель")
+                .requestor(user())
+                .created(LocalDateTime.now())
+                .build());
+
+        List<ItemDto> created = itemService.createBatch(
+                List.of(item("Дрель", request.getId()), item("Пила", null)), owner.getId());
+
+        assertEquals(request.getId(), created.get(0).getRequestId());
+        assertThrows(NotFoundException.class,
+                () -> itemService.createBatch(List.of(item("Дрель", Long.MAX_VALUE)), owner.getId()));
+    }
+
+    @Test
+    void createBatchValidatesWholeBatchBeforeWriting() {
+        assertThrows(ValidationException.class, () -> itemService.createBatch(List.of(), owner.getId()));
+        assertThrows(ValidationException.class, () -> itemService.createBatch(
+                Collections.nCopies(MAX_BATCH_SIZE + 1, item("Дрель", null)), owner.getId()));
+        assertThrows(NotFoundException.class,
+                () -> itemService.createBatch(List.of(item("Дрель", null)), Long.MAX_VALUE));
+
+        ItemDto invalid = item(" ", null);
+        assertThrows(ValidationException.class,
+                () -> itemService.createBatch(List.of(item("Дрель", null), invalid), owner.getId()));
+        assertTrue(itemService.getAllByOwner(owner.getId()).isEmpty());
+    }
+
+    @Test
+    void createBatchAcceptsMaximumSize() {
+        List<ItemDto> created = itemService.createBatch(
+                Collections.nCopies(MAX_BATCH_SIZE, item("Дрель", null)), owner.getId());
+
+        assertEquals(MAX_BATCH_SIZE, new HashSet<>(created.stream().map(ItemDto::getId).toList()).size());
+    }
+
+    @Test
+    void updateBatchChangesOnlyOwnItems() {
+        List<ItemDto> created = itemService.createBatch(
+                List.of(item("Дрель", null), item("Пила", null)), owner.getId());
+        ItemDto rename = ItemDto.builder().id(created.get(0).getId()).name("Перфоратор").build();
+        ItemDto hide = ItemDto.builder().id(created.get(1).getId()).available(false).build();
+
+        List<ItemDto> updated = itemService.updateBatch(List.of(rename, hide), owner.getId());
+
+        assertEquals("Перфоратор", updated.get(0).getName());
+        assertEquals("Простой инструмент", updated.get(0).getDescription());
+        assertEquals(false, updated.get(1).getAvailable());
+
+        Long strangerId = user().getId();
+        assertThrows(NotFoundException.class, () -> itemService.updateBatch(List.of(rename), strangerId));
+        assertThrows(NotFoundException.class, () -> itemService.updateBatch(
+                List.of(ItemDto.builder().id(Long.MAX_VALUE).name("Пила").build()), owner.getId()));
+        assertThrows(ValidationException.class, () -> itemService.updateBatch(
+                List.of(ItemDto.builder().name("Пила").build()), owner.getId()));
+        assertEquals("Перфоратор", itemService.getById(created.get(0).getId()).getName());
+    }
+
+    private User user() {
+        return userRepository.save(User.builder()
+                .name("user")
+                .email("user-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+    }
+
+    private static ItemDto item(String name, Long requestId) {
+        return ItemDto.builder()
+                .name(name)
+                .description("Простой инструмент")
+                .available(true)
+                .requestId(requestId)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.requests.notification.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemSearchTest {
+    private static final int DEFAULT_SIZE = 20;
+    private static final int MAX_SIZE = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void searchIsPagedByDefaultAndCapped() throws Exception {
+        String term = "дрель" + UUID.randomUUID().toString().substring(0, 8);
+        long ownerId = userService.create(UserDto.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@mail.ru")
+                .build()).getId();
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < DEFAULT_SIZE + 5; i++) {
+            items.add(ItemDto.builder().name(term + " " + i).description("Простая дрель").available(true).build());
+        }
+        itemService.createBatch(items, ownerId);
+
+        mockMvc.perform(get("/items/search").param("text", term))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(DEFAULT_SIZE)));
+        mockMvc.perform(get("/items/search").param("text", term).param("size", String.valueOf(MAX_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(DEFAULT_SIZE + 5)));
+        mockMvc.perform(get("/items/search").param("text", term).param("size", String.valueOf(MAX_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void trigramEngineSkipsRankingForTermsShorterThanTrigram() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        TrigramItemSearchEngine engine = new TrigramItemSearchEngine(itemRepository);
+
+        engine.search("Др", 0, DEFAULT_SIZE);
+        verify(itemRepository).searchByPatternInIdOrder(eq("%др%"), any());
+        verify(itemRepository, never()).searchByTrigram(anyString(), anyString(), any());
+
+        engine.search("Дрель", 0, DEFAULT_SIZE);
+        verify(itemRepository).searchByTrigram(eq("дрель"), eq("%дрель%"), any());
+    }
+}
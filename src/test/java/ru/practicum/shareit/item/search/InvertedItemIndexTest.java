@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedItemIndexTest {
+
+    @Test
+    void matchesWordPrefixesAndCombinesWordsWithAnd() {
+        InvertedItemIndex index = new InvertedItemIndex();
+        index.put(1, "Дрель ударная", "Мощная дрель");
+        index.put(2, "Дрезина", "Ручная");
+        index.put(3, "Отвёртка", "Аккумуляторная ударная");
+
+        assertArrayEquals(new long[]{1, 2}, index.search("дре"));
+        assertArrayEquals(new long[]{1, 3}, index.search("УДАР"));
+        assertArrayEquals(new long[]{1}, index.search("дре удар"));
+        assertArrayEquals(new long[0], index.search("рель"));
+        assertArrayEquals(new long[0], index.search("  "));
+    }
+
+    @Test
+    void updatesAndRemovesItems() {
+        InvertedItemIndex index = new InvertedItemIndex();
+        index.put(1, "Дрель", "Простая");
+        index.put(1, "Пила", "Простая");
+
+        assertArrayEquals(new long[0], index.search("дрель"));
+        assertArrayEquals(new long[]{1}, index.search("пила"));
+
+        index.remove(1);
+        assertEquals(0, index.itemCount());
+        assertEquals(0, index.termCount());
+    }
+
+    @Test
+    void memoryEstimateReturnsToZeroAfterRemoval() {
+        InvertedItemIndex index = new InvertedItemIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.put(id, "Вещь " + id, "Описание общее");
+        }
+        assertTrue(index.estimatedMemoryBytes() > 0);
+
+        for (long id = 1; id <= 100; id++) {
+            index.remove(id);
+        }
+        assertEquals(0, index.estimatedMemoryBytes());
+    }
+}
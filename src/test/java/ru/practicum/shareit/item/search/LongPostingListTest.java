@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongPostingListTest {
+
+    @Test
+    void keepsIdsSortedAndUnique() {
+        LongPostingList list = new LongPostingList();
+
+        assertTrue(list.add(5));
+        assertTrue(list.add(1));
+        assertTrue(list.add(9));
+        assertTrue(list.add(3));
+        assertTrue(list.add(7));
+        assertFalse(list.add(3));
+
+        assertArrayEquals(new long[]{1, 3, 5, 7, 9}, list.toArray());
+        assertEquals(5, list.size());
+    }
+
+    @Test
+    void removesIds() {
+        LongPostingList list = new LongPostingList();
+        list.add(1);
+        list.add(2);
+
+        assertTrue(list.remove(1));
+        assertFalse(list.remove(1));
+        assertArrayEquals(new long[]{2}, list.toArray());
+        assertTrue(list.remove(2));
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void intersectAndUnion() {
+        long[] left = {1, 3, 5, 7};
+        long[] right = {3, 4, 5, 8};
+
+        assertArrayEquals(new long[]{3, 5}, LongPostingList.intersect(left, right));
+        assertArrayEquals(new long[]{1, 3, 4, 5, 7, 8}, LongPostingList.union(left, right));
+        assertArrayEquals(new long[0], LongPostingList.intersect(left, new long[0]));
+        assertArrayEquals(left, LongPostingList.union(left, new long[0]));
+    }
+
+    @Test
+    void unionAllMatchesSetUnion() {
+        Random random = new Random(1);
+        TreeSet<Long> expected = new TreeSet<>();
+        List<long[]> lists = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            LongPostingList list = new LongPostingList();
+            for (int j = random.nextInt(50); j > 0; j--) {
+                long id = random.nextInt(300);
+                list.add(id);
+                expected.add(id);
+            }
+            lists.add(list.toArray());
+        }
+
+        long[] union = LongPostingList.unionAll(lists);
+
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), union);
+        assertArrayEquals(new long[0], LongPostingList.unionAll(List.of()));
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ItemDtoCacheTest {
+    private final ItemDtoCache cache = new ItemDtoCache(new ConcurrentMapCacheManager(CacheConfig.ITEMS));
+
+    @Test
+    void putsValueLoadedWithoutConcurrentChange() {
+        long stamp = cache.stamp(1L);
+        cache.put(1L, stamp, item("Дрель"));
+
+        assertEquals("Дрель", cache.get(1L).getName());
+    }
+
+    @Test
+    void dropsValueLoadedBeforeEviction() {
+        cache.put(1L, cache.stamp(1L), item("Дрель"));
+
+        long stamp = cache.stamp(1L);
+        // Изменение зафиксировано и вещь вытеснена, пока читатель загружал старые данные
+        cache.evict(1L);
+        cache.put(1L, stamp, item("Дрель"));
+
+        assertNull(cache.get(1L));
+
+        cache.put(1L, cache.stamp(1L), item("Перфоратор"));
+        assertEquals("Перфоратор", cache.get(1L).getName());
+    }
+
+    private static ItemDto item(String name) {
+        return ItemDto.builder().name(name).build();
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.notification;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.notification.model.RequestOutboxEntry;
+import ru.practicum.shareit.notification.repository.RequestOutboxRepository;
+import ru.practicum.shareit.notification.service.RequestMatcher;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "shareit.requests.notification.poll-interval=100",
+        "shareit.requests.notification.max-attempts=3"})
+@ActiveProfiles("test")
+class RequestNotificationPipelineTest {
+    private static final int MAX_ATTEMPTS = 3;
+
+    @MockBean
+    private RequestMatcher requestMatcher;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private RequestOutboxRepository outboxRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createdRequestIsMatchedAfterCommit() throws InterruptedException {
+        ItemRequestDto request = itemRequestService.create(user().getId(),
+                ItemRequestDto.builder().description("Нужна дрель").build());
+
+        awaitTrue(() -> outboxRepository.findAll().stream()
+                .anyMatch(entry -> entry.getRequestId().equals(request.getId()) && entry.getProcessed() != null));
+        verify(requestMatcher).notifyOwners(request.getId());
+    }
+
+    @Test
+    void failingEntryIsRetriedUpToLimitWithoutBlockingOthers() throws InterruptedException {
+        User requestor = user();
+        ItemRequest failing = request(requestor);
+        ItemRequest healthy = request(requestor);
+        doThrow(new IllegalStateException("поиск недоступен")).when(requestMatcher).notifyOwners(failing.getId());
+
+        // Записи без события после фиксации подбирает только опрос outbox
+        Long failingEntryId = outbox(failing).getId();
+        Long healthyEntryId = outbox(healthy).getId();
+
+        awaitTrue(() -> outboxRepository.findById(healthyEntryId).orElseThrow().getProcessed() != null);
+        awaitTrue(() -> outboxRepository.findById(failingEntryId).orElseThrow().getAttempts() == MAX_ATTEMPTS);
+        // Несколько опросов подряд: исчерпавшая попытки запись больше не берётся
+        Thread.sleep(500);
+
+        RequestOutboxEntry failed = outboxRepository.findById(failingEntryId).orElseThrow();
+        assertNull(failed.getProcessed());
+        assertEquals(MAX_ATTEMPTS, failed.getAttempts());
+        assertTrue(failed.getLastError().contains("поиск недоступен"));
+        verify(requestMatcher, times(MAX_ATTEMPTS)).notifyOwners(failing.getId());
+        verify(requestMatcher).notifyOwners(healthy.getId());
+    }
+
+    private User user() {
+        return userRepository.save(User.builder()
+                .name("requestor")
+                .email("requestor-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+    }
+
+    private ItemRequest request(User requestor) {
+        return itemRequestRepository.save(ItemRequest.builder()
+                .description("Нужна пила")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    private RequestOutboxEntry outbox(ItemRequest request) {
+        return outboxRepository.save(RequestOutboxEntry.builder()
+                .requestId(request.getId())
+                .created(request.getCreated())
+                .build());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Условие не выполнилось за 10 секунд");
+            }
+            Thread.sleep(50);
+        }
+    }
+}
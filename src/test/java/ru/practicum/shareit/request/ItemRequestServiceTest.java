@@ -0,0 +1,149 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestItemDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.requests.notification.enabled=false")
+@ActiveProfiles("test")
+class ItemRequestServiceTest {
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User requestor;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        requestor = user("requestor");
+        other = user("other");
+    }
+
+    @Test
+    void createTrimsDescriptionAndRejectsInvalidInput() {
+        ItemRequestDto created = itemRequestService.create(requestor.getId(), request("  Нужна дрель  "));
+
+        assertNotNull(created.getId());
+        assertNotNull(created.getCreated());
+        assertEquals("Нужна дрель", created.getDescription());
+        assertTrue(created.getItems().isEmpty());
+
+        assertThrows(ValidationException.class, () -> itemRequestService.create(requestor.getId(), request(" ")));
+        assertThrows(NotFoundException.class, () -> itemRequestService.create(Long.MAX_VALUE, request("Дрель")));
+    }
+
+    @Test
+    void getOwnReturnsNewestFirstWithItemsAndPages() {
+        ItemRequestDto first = itemRequestService.create(requestor.getId(), request("Дрель"));
+        ItemRequestDto second = itemRequestService.create(requestor.getId(), request("Пила"));
+        ItemRequestDto third = itemRequestService.create(requestor.getId(), request("Лестница"));
+        itemRequestService.create(other.getId(), request("Молоток"));
+        Item drill = item("Дрель", first.getId());
+
+        List<ItemRequestDto> own = itemRequestService.getOwn(requestor.getId(), 0, null);
+
+        assertEquals(List.of(third.getId(), second.getId(), first.getId()), ids(own));
+        assertEquals(List.of(new RequestItemDto(drill.getId(), "Дрель", other.getId())), own.get(2).getItems());
+        assertTrue(own.get(0).getItems().isEmpty());
+
+        assertEquals(List.of(second.getId()), ids(itemRequestService.getOwn(requestor.getId(), 1, 1)));
+    }
+
+    @Test
+    void getOthersExcludesOwnRequests() {
+        ItemRequestDto own = itemRequestService.create(requestor.getId(), request("Дрель"));
+        ItemRequestDto foreign = itemRequestService.create(other.getId(), request("Пила"));
+
+        List<Long> others = ids(itemRequestService.getOthers(requestor.getId(), 0, 1000));
+
+        assertTrue(others.contains(foreign.getId()));
+        assertTrue(!others.contains(own.getId()));
+        assertEquals(1, itemRequestService.getOthers(requestor.getId(), 0, 1).size());
+    }
+
+    @Test
+    void getOthersPagesRequestsWithSameCreatedWithoutRepeats() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(itemRequestService.create(other.getId(), request("Запрос " + i)).getId());
+        }
+        // Позже всех остальных запросов в базе, чтобы они заняли первые страницы
+        Timestamp sameTime = Timestamp.valueOf(LocalDateTime.now().plusYears(100));
+        created.forEach(id -> jdbcTemplate.update("UPDATE requests SET created = ? WHERE id = ?", sameTime, id));
+
+        List<Long> paged = new ArrayList<>();
+        for (int from = 0; from < created.size(); from++) {
+            paged.addAll(ids(itemRequestService.getOthers(requestor.getId(), from, 1)));
+        }
+
+        assertEquals(created.stream().sorted(Comparator.reverseOrder()).toList(), paged);
+    }
+
+    @Test
+    void getByIdReturnsRequestWithItemsForAnyUser() {
+        ItemRequestDto created = itemRequestService.create(requestor.getId(), request("Дрель"));
+        Item drill = item("Дрель", created.getId());
+
+        ItemRequestDto found = itemRequestService.getById(other.getId(), created.getId());
+
+        assertEquals("Дрель", found.getDescription());
+        assertEquals(List.of(drill.getId()), found.getItems().stream().map(RequestItemDto::getId).toList());
+        assertThrows(NotFoundException.class, () -> itemRequestService.getById(other.getId(), Long.MAX_VALUE));
+        assertThrows(NotFoundException.class, () -> itemRequestService.getById(Long.MAX_VALUE, created.getId()));
+    }
+
+    private static ItemRequestDto request(String description) {
+        return ItemRequestDto.builder().description(description).build();
+    }
+
+    private static List<Long> ids(List<ItemRequestDto> requests) {
+        return requests.stream().map(ItemRequestDto::getId).toList();
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+    }
+
+    private Item item(String name, Long requestId) {
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description(name)
+                .available(true)
+                .owner(other.getId())
+                .requestId(requestId)
+                .build());
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "shareit.requests.notification.enabled=false")
+@ActiveProfiles("test")
+class UserBatchTest {
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createBatchAssignsDistinctIds() {
+        List<UserDto> users = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            users.add(user());
+        }
+
+        List<UserDto> created = userService.createBatch(users);
+
+        assertEquals(120, created.stream().map(UserDto::getId).collect(Collectors.toSet()).size());
+        assertEquals(users.get(119).getEmail(), created.get(119).getEmail());
+        assertEquals(created.get(0).getEmail(), userService.getById(created.get(0).getId()).getEmail());
+    }
+
+    @Test
+    void createBatchRejectsDuplicateEmailsWithoutWriting() {
+        UserDto existing = userService.create(user());
+        UserDto fresh = user();
+
+        UserDto duplicateInBatch = UserDto.builder().name("copy").email(fresh.getEmail()).build();
+        assertThrows(ConflictException.class, () -> userService.createBatch(List.of(fresh, duplicateInBatch)));
+
+        UserDto taken = UserDto.builder().name("copy").email(existing.getEmail()).build();
+        assertThrows(ConflictException.class, () -> userService.createBatch(List.of(fresh, taken)));
+
+        assertFalse(userRepository.existsByEmail(fresh.getEmail()));
+    }
+
+    @Test
+    void createBatchValidatesSizeAndEntries() {
+        assertThrows(ValidationException.class, () -> userService.createBatch(List.of()));
+
+        List<UserDto> tooMany = new ArrayList<>();
+        for (int i = 0; i <= MAX_BATCH_SIZE; i++) {
+            tooMany.add(user());
+        }
+        assertThrows(ValidationException.class, () -> userService.createBatch(tooMany));
+
+        UserDto withoutEmail = UserDto.builder().name("user").build();
+        assertThrows(ValidationException.class, () -> userService.createBatch(List.of(user(), withoutEmail)));
+    }
+
+    private static UserDto user() {
+        return UserDto.builder()
+                .name("user")
+                .email("user-" + UUID.randomUUID() + "@mail.ru")
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.StatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.requests.notification.enabled=false")
+@ActiveProfiles("test")
+class UserExistenceCheckerTest {
+    @Autowired
+    private UserExistenceChecker userExistence;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("user")
+                .email("user-" + UUID.randomUUID() + "@mail.ru")
+                .build());
+        StatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        StatementCounter.clear();
+    }
+
+    @Test
+    void checksDatabaseOncePerRequestWithoutSharedCache() {
+        // Нулевой TTL отключает общий кэш, остаётся только набор в атрибутах запроса
+        UserExistenceChecker checker = new UserExistenceChecker(userRepository, new SimpleMeterRegistry(),
+                Duration.ZERO, 100);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertTrue(checker.exists(user.getId()));
+        assertTrue(checker.exists(user.getId()));
+        checker.requireExists(user.getId());
+        assertEquals(1, StatementCounter.current());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertTrue(checker.exists(user.getId()));
+        assertEquals(2, StatementCounter.current());
+    }
+
+    @Test
+    void sharedCacheIsEvictedAfterDeleteCommits() {
+        assertTrue(userExistence.exists(user.getId()));
+        assertTrue(userExistence.exists(user.getId()));
+        assertEquals(1, StatementCounter.current());
+
+        userService.delete(user.getId());
+        StatementCounter.reset();
+
+        assertFalse(userExistence.exists(user.getId()));
+        assertEquals(1, StatementCounter.current());
+    }
+
+    @Test
+    void writeForUserDeletedElsewhereReturnsNotFound() {
+        assertTrue(userExistence.exists(user.getId()));
+        // Удаление на другом узле: события здесь нет, id остаётся в кэше
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+        ItemDto item = ItemDto.builder().name("Дрель").description("Простая дрель").available(true).build();
+
+        assertThrows(NotFoundException.class, () -> itemService.create(item, user.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.createBatch(List.of(item), user.getId()));
+
+        StatementCounter.reset();
+        assertFalse(userExistence.exists(user.getId()));
+        assertEquals(1, StatementCounter.current());
+    }
+}
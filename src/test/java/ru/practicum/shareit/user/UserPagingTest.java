@@ -0,0 +1,108 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.requests.notification.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserPagingTest {
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            ids.add(userService.create(UserDto.builder()
+                    .name("user" + i)
+                    .email("user-" + UUID.randomUUID() + "@mail.ru")
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    void pageStartsAfterCursorAndFullPageHasNextCursor() throws Exception {
+        mockMvc.perform(get("/users").param("afterId", ids.get(1).toString()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(ids.get(2).intValue(), ids.get(3).intValue())))
+                .andExpect(header().string("X-Next-Cursor", ids.get(3).toString()));
+    }
+
+    @Test
+    void lastPartialPageHasNoNextCursor() throws Exception {
+        mockMvc.perform(get("/users").param("afterId", ids.get(3).toString()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(ids.get(4)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void sizeAboveCapAndNegativeCursorAreRejected() throws Exception {
+        mockMvc.perform(get("/users").param("size", String.valueOf(MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users").param("afterId", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users").param("afterId", ids.get(3).toString())
+                        .param("size", String.valueOf(MAX_PAGE_SIZE)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void exportStreamsAllUsersInIdOrder() throws Exception {
+        MvcResult result = mockMvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<Long> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            UserDto user = objectMapper.readValue(line, UserDto.class);
+            if (!exported.isEmpty()) {
+                assertTrue(user.getId() > exported.get(exported.size() - 1), "Порядок нарушен на id=" + user.getId());
+            }
+            exported.add(user.getId());
+            if (user.getId().equals(ids.get(0))) {
+                assertEquals("user0", user.getName());
+            }
+        }
+        assertTrue(exported.containsAll(ids));
+    }
+}
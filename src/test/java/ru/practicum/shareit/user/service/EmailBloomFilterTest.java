@@ -0,0 +1,95 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailBloomFilterTest {
+    private static final int EXPECTED = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void hasNoFalseNegatives() {
+        List<String> stored = emails("stored", EXPECTED / 2);
+        when(userRepository.streamAllEmails()).thenAnswer(invocation -> stored.stream());
+        EmailBloomFilter filter = filter(0.2);
+        filter.load();
+
+        List<String> added = emails("added", EXPECTED / 2);
+        added.forEach(filter::put);
+
+        stored.forEach(email -> assertTrue(filter.mightContain(email), email));
+        added.forEach(email -> assertTrue(filter.mightContain(email), email));
+    }
+
+    @Test
+    void falsePositiveRateIsNearConfigured() {
+        List<String> stored = emails("stored", EXPECTED);
+        when(userRepository.streamAllEmails()).thenAnswer(invocation -> stored.stream());
+        EmailBloomFilter filter = filter(0.2);
+        filter.load();
+
+        int probes = 100_000;
+        long falsePositives = emails("absent", probes).stream()
+                .filter(filter::mightContain)
+                .count();
+        double rate = (double) falsePositives / probes;
+
+        assertTrue(rate > FALSE_POSITIVE_RATE / 2 && rate < FALSE_POSITIVE_RATE * 2,
+                "Доля ложноположительных " + rate + " при заданной " + FALSE_POSITIVE_RATE);
+    }
+
+    @Test
+    void keepsEmailsWrittenDuringRebuild() throws Exception {
+        // Адрес сначала сохраняется в "базу", потом кладётся в фильтр, как в UserServiceImpl
+        List<String> stored = new CopyOnWriteArrayList<>(emails("stored", EXPECTED));
+        when(userRepository.streamAllEmails()).thenAnswer(invocation -> stored.stream());
+        EmailBloomFilter filter = filter(0);
+        filter.load();
+
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int writer = 0; writer < 4; writer++) {
+            List<String> emails = emails("writer" + writer, 2_000);
+            futures.add(writers.submit(() -> emails.forEach(email -> {
+                stored.add(email);
+                filter.put(email);
+            })));
+        }
+        while (futures.stream().anyMatch(future -> !future.isDone())) {
+            filter.release();
+            filter.rebuildIfStale();
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        writers.shutdown();
+
+        stored.forEach(email -> assertTrue(filter.mightContain(email), email));
+    }
+
+    private EmailBloomFilter filter(double maxStaleRatio) {
+        return new EmailBloomFilter(userRepository, new SimpleMeterRegistry(), true, EXPECTED,
+                FALSE_POSITIVE_RATE, maxStaleRatio);
+    }
+
+    private static List<String> emails(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> prefix + "-" + i + "@mail.ru")
+                .toList();
+    }
+}
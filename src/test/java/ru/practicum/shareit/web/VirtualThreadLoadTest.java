@@ -0,0 +1,134 @@
+package ru.practicum.shareit.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает p99 списка вещей владельца при высокой параллельности в двух режимах:
+ * пул платформенных потоков Tomcat и виртуальные потоки с ограничителем параллельности.
+ * Виртуальные потоки не должны ухудшать p99 больше чем в max-p99-ratio раз, и все ответы
+ * в обоих режимах должны быть успешными (ограничитель не отвечает 503 при такой нагрузке).
+ * Запуск: mvn test -Dtest=VirtualThreadLoadTest -Dshareit.load-test=true
+ */
+@EnabledIfSystemProperty(named = "shareit.load-test", matches = "true")
+class VirtualThreadLoadTest {
+    private static final int CONCURRENCY = Integer.getInteger("shareit.load-test.concurrency", 1000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("shareit.load-test.requests", 20);
+    private static final double MAX_P99_RATIO =
+            Double.parseDouble(System.getProperty("shareit.load-test.max-p99-ratio", "1.5"));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void compareP99() throws Exception {
+        long platformP99 = run(false);
+        long virtualP99 = run(true);
+
+        // p99 меряется в миллисекундах; +1 не даёт нулевой базе провалить сравнение
+        assertTrue(virtualP99 <= (platformP99 + 1) * MAX_P99_RATIO,
+                "p99 с виртуальными потоками " + virtualP99 + " мс, с пулом платформенных " + platformP99 + " мс");
+    }
+
+    private long run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.springframework.transaction.interceptor=INFO",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO",
+                        "shareit.requests.notification.enabled=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads)
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            long ownerId = createOwnerWithItems(baseUrl);
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/items"))
+                    .header("X-Sharer-User-Id", String.valueOf(ownerId))
+                    .GET()
+                    .build();
+            return measureP99(request);
+        }
+    }
+
+    private long createOwnerWithItems(String baseUrl) throws Exception {
+        HttpResponse<String> user = post(baseUrl + "/users", null,
+                "{\"name\":\"owner\",\"email\":\"owner-" + System.nanoTime() + "@mail.ru\"}");
+        long ownerId = Long.parseLong(user.body().replaceAll(".*\"id\":(\\d+).*", "$1"));
+        for (int i = 0; i < 20; i++) {
+            post(baseUrl + "/items", ownerId,
+                    "{\"name\":\"Дрель " + i + "\",\"description\":\"Простая дрель\",\"available\":true}");
+        }
+        return ownerId;
+    }
+
+    private HttpResponse<String> post(String url, Long userId, String body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            builder.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(2, response.statusCode() / 100, response.body());
+        return response;
+    }
+
+    private long measureP99(HttpRequest request) throws Exception {
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<long[]>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                clients.add(executor.submit(() -> {
+                    startGate.await();
+                    long[] latencies = new long[REQUESTS_PER_CLIENT];
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long started = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[r] = (System.nanoTime() - started) / 1_000_000;
+                        if (response.statusCode() / 100 != 2) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+            startGate.countDown();
+
+            long[] all = new long[CONCURRENCY * REQUESTS_PER_CLIENT];
+            int position = 0;
+            for (Future<long[]> future : clients) {
+                long[] latencies = future.get();
+                System.arraycopy(latencies, 0, all, position, latencies.length);
+                position += latencies.length;
+            }
+            assertEquals(0, failures.get(), "Неуспешные ответы из " + all.length);
+            Arrays.sort(all);
+            return all[(int) Math.ceil(all.length * 0.99) - 1];
+        }
+    }
+}